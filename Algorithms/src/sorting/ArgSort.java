@@ -0,0 +1,405 @@
+package sorting;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * @author: lsj
+ * @date: 2026/10/18 21:10
+ * Description: 间接排序(argsort)：不移动关键字，而是返回使关键字有序的下标排列perm，
+ * 即keys[perm[0]] <= keys[perm[1]] <= ...。
+ * 多个平行的列（如id、时间戳、分数）需要按其中一列排序时，只需对关键字列做一次argsort，
+ * 再用apply/applyInPlace按同一个排列重排其余各列，不需要把每一行装箱成对象。
+ *
+ * 三种模式：
+ * 1. STABLE：稳定排序，关键字相等的下标保持升序，对下标数组做归并排序；
+ * 2. UNSTABLE：不保证稳定，对下标数组做随机选轴的三路快排，不需要辅助数组；
+ * 3. PARALLEL：在ForkJoinPool中并行归并排序，结果与STABLE相同。
+ * int关键字的三种模式结果都是稳定的：关键字与下标被打包成一个long（关键字在高32位，下标在低32位）后直接排序long数组，
+ * 相等的关键字自然按下标排列。double关键字先转换为与Double.compare顺序一致的long，再按long关键字排序。
+ */
+public final class ArgSort {
+
+    public enum Mode {
+        STABLE, UNSTABLE, PARALLEL
+    }
+
+    /**
+     * 区间长度不超过该值时使用插入排序
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    /**
+     * 并行模式下区间长度不超过该值时串行排序
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 13;
+
+    private ArgSort(){
+    }
+
+    /**
+     * 比较两个下标对应的关键字
+     */
+    @FunctionalInterface
+    private interface IndexComparator {
+        int compare(int i, int j);
+    }
+
+    /**
+     * 稳定的间接排序
+     * @param keys 关键字列
+     * @param <T> type of keys
+     * @return 使keys有序的下标排列
+     */
+    public static <T extends Comparable<T>> int[] argsort(T[] keys){
+        return argsort(keys, Comparator.<T>naturalOrder(), Mode.STABLE);
+    }
+
+    public static <T> int[] argsort(T[] keys, Comparator<? super T> c){
+        return argsort(keys, c, Mode.STABLE);
+    }
+
+    /**
+     * 按比较器c对keys做间接排序
+     * @param keys 关键字列
+     * @param c comparator
+     * @param mode 排序模式
+     * @param <T> type of keys
+     * @return 使keys有序的下标排列
+     */
+    public static <T> int[] argsort(T[] keys, Comparator<? super T> c, Mode mode){
+        return sort(keys.length, (i, j) -> c.compare(keys[i], keys[j]), mode);
+    }
+
+    public static int[] argsort(int[] keys){
+        return argsort(keys, Mode.STABLE);
+    }
+
+    /**
+     * int关键字的间接排序，任何模式下都是稳定的
+     */
+    public static int[] argsort(int[] keys, Mode mode){
+        int n = keys.length;
+        long[] packed = new long[n];
+        for (int i = 0; i < n; i++) {
+            //下标非负，放在低32位不影响有符号long按关键字比较的顺序
+            packed[i] = (long) keys[i] << 32 | i;
+        }
+        if(mode == Mode.PARALLEL){
+            Arrays.parallelSort(packed);
+        }else{
+            Arrays.sort(packed);
+        }
+        int[] perm = new int[n];
+        for (int i = 0; i < n; i++) {
+            perm[i] = (int) packed[i];
+        }
+        return perm;
+    }
+
+    public static int[] argsort(long[] keys){
+        return argsort(keys, Mode.STABLE);
+    }
+
+    public static int[] argsort(long[] keys, Mode mode){
+        return sort(keys.length, (i, j) -> Long.compare(keys[i], keys[j]), mode);
+    }
+
+    public static int[] argsort(double[] keys){
+        return argsort(keys, Mode.STABLE);
+    }
+
+    /**
+     * double关键字的间接排序，顺序与Double.compare一致（-0.0小于0.0，NaN排在最后）
+     */
+    public static int[] argsort(double[] keys, Mode mode){
+        long[] bits = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            long b = Double.doubleToLongBits(keys[i]);
+            bits[i] = b ^ ((b >> 63) & Long.MAX_VALUE);
+        }
+        return argsort(bits, mode);
+    }
+
+    private static int[] sort(int n, IndexComparator c, Mode mode){
+        int[] perm = new int[n];
+        for (int i = 0; i < n; i++) {
+            perm[i] = i;
+        }
+        switch (mode){
+            case STABLE:
+                mergeSort(perm, new int[n], 0, n, c);
+                break;
+            case UNSTABLE:
+                quickSort(perm, 0, n, c);
+                break;
+            case PARALLEL:
+                ForkJoinPool pool = ForkJoinPool.commonPool();
+                if(n <= PARALLEL_THRESHOLD || pool.getParallelism() == 1){
+                    mergeSort(perm, new int[n], 0, n, c);
+                }else{
+                    pool.invoke(new ParallelMergeSortTask(perm, new int[n], 0, n, c));
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown mode.");
+        }
+        return perm;
+    }
+
+    /**
+     * 对perm[from, to)插入排序
+     */
+    private static void insertionSort(int[] perm, int from, int to, IndexComparator c){
+        for (int i = from + 1; i < to; i++) {
+            int e = perm[i];
+            int j = i;
+            for (; j > from && c.compare(perm[j - 1], e) > 0; j--) {
+                perm[j] = perm[j - 1];
+            }
+            perm[j] = e;
+        }
+    }
+
+    /**
+     * 对perm[from, to)归并排序，temp为与perm等长的辅助数组
+     */
+    private static void mergeSort(int[] perm, int[] temp, int from, int to, IndexComparator c){
+        if(to - from <= INSERTION_SORT_THRESHOLD){
+            insertionSort(perm, from, to, c);
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(perm, temp, from, mid, c);
+        mergeSort(perm, temp, mid, to, c);
+        merge(perm, temp, from, mid, to, c);
+    }
+
+    /**
+     * 合并perm[from, mid)与perm[mid, to)
+     */
+    private static void merge(int[] perm, int[] temp, int from, int mid, int to, IndexComparator c){
+        //左右两半已经整体有序，无需合并
+        if(c.compare(perm[mid - 1], perm[mid]) <= 0){
+            return;
+        }
+        System.arraycopy(perm, from, temp, from, to - from);
+        int i = from, j = mid, k = from;
+        while (i < mid && j < to) {
+            perm[k++] = c.compare(temp[j], temp[i]) < 0 ? temp[j++] : temp[i++];
+        }
+        //右半部分剩余的元素已经在正确的位置上
+        System.arraycopy(temp, i, perm, k, mid - i);
+    }
+
+    /**
+     * 对perm[from, to)三路快排，只递归较短的一侧，递归深度为O(log n)
+     */
+    private static void quickSort(int[] perm, int from, int to, IndexComparator c){
+        while (to - from > INSERTION_SORT_THRESHOLD) {
+            int pivot = perm[from + ThreadLocalRandom.current().nextInt(to - from)];
+            //perm[from, lt) < pivot, perm[lt, i) == pivot, perm(gt, to) > pivot
+            int lt = from, i = from, gt = to - 1;
+            while (i <= gt) {
+                int cmp = c.compare(perm[i], pivot);
+                if(cmp < 0){
+                    swap(perm, lt++, i++);
+                }else if(cmp > 0){
+                    swap(perm, i, gt--);
+                }else{
+                    i++;
+                }
+            }
+            if(lt - from < to - gt - 1){
+                quickSort(perm, from, lt, c);
+                from = gt + 1;
+            }else{
+                quickSort(perm, gt + 1, to, c);
+                to = lt;
+            }
+        }
+        insertionSort(perm, from, to, c);
+    }
+
+    private static void swap(int[] arr, int i, int j){
+        int t = arr[i];
+        arr[i] = arr[j];
+        arr[j] = t;
+    }
+
+    /**
+     * 并行归并排序perm[from, to)的任务
+     */
+    private static final class ParallelMergeSortTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] perm;
+        private final int[] temp;
+        private final int from;
+        private final int to;
+        private final IndexComparator c;
+
+        ParallelMergeSortTask(int[] perm, int[] temp, int from, int to, IndexComparator c){
+            this.perm = perm;
+            this.temp = temp;
+            this.from = from;
+            this.to = to;
+            this.c = c;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from <= PARALLEL_THRESHOLD){
+                mergeSort(perm, temp, from, to, c);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ParallelMergeSortTask(perm, temp, from, mid, c),
+                    new ParallelMergeSortTask(perm, temp, mid, to, c));
+            merge(perm, temp, from, mid, to, c);
+        }
+    }
+
+    /* 以下按排列perm重排其他列：结果的第i个元素为原列的第perm[i]个元素 */
+
+    /**
+     * @return 新数组，第i个元素为column[perm[i]]
+     */
+    public static int[] apply(int[] perm, int[] column){
+        checkLength(perm, column.length);
+        int[] result = new int[perm.length];
+        for (int i = 0; i < perm.length; i++) {
+            result[i] = column[perm[i]];
+        }
+        return result;
+    }
+
+    public static long[] apply(int[] perm, long[] column){
+        checkLength(perm, column.length);
+        long[] result = new long[perm.length];
+        for (int i = 0; i < perm.length; i++) {
+            result[i] = column[perm[i]];
+        }
+        return result;
+    }
+
+    public static double[] apply(int[] perm, double[] column){
+        checkLength(perm, column.length);
+        double[] result = new double[perm.length];
+        for (int i = 0; i < perm.length; i++) {
+            result[i] = column[perm[i]];
+        }
+        return result;
+    }
+
+    public static <T> T[] apply(int[] perm, T[] column){
+        checkLength(perm, column.length);
+        T[] result = Arrays.copyOf(column, perm.length);
+        for (int i = 0; i < perm.length; i++) {
+            result[i] = column[perm[i]];
+        }
+        return result;
+    }
+
+    /**
+     * 原地重排column：沿排列的每个环依次移动元素，每个元素只移动一次，额外空间为n个boolean。
+     * perm不会被修改；perm不是合法的排列时抛出IllegalArgumentException，此时column可能已被部分重排。
+     */
+    public static void applyInPlace(int[] perm, int[] column){
+        checkLength(perm, column.length);
+        boolean[] visited = new boolean[perm.length];
+        for (int start = 0; start < perm.length; start++) {
+            if(visited[start]){
+                continue;
+            }
+            int e = column[start];
+            int j = start;
+            for (int k = perm[j]; k != start; k = perm[j]) {
+                checkUnvisited(visited, k);
+                column[j] = column[k];
+                visited[j] = true;
+                j = k;
+            }
+            column[j] = e;
+            visited[j] = true;
+        }
+    }
+
+    public static void applyInPlace(int[] perm, long[] column){
+        checkLength(perm, column.length);
+        boolean[] visited = new boolean[perm.length];
+        for (int start = 0; start < perm.length; start++) {
+            if(visited[start]){
+                continue;
+            }
+            long e = column[start];
+            int j = start;
+            for (int k = perm[j]; k != start; k = perm[j]) {
+                checkUnvisited(visited, k);
+                column[j] = column[k];
+                visited[j] = true;
+                j = k;
+            }
+            column[j] = e;
+            visited[j] = true;
+        }
+    }
+
+    public static void applyInPlace(int[] perm, double[] column){
+        checkLength(perm, column.length);
+        boolean[] visited = new boolean[perm.length];
+        for (int start = 0; start < perm.length; start++) {
+            if(visited[start]){
+                continue;
+            }
+            double e = column[start];
+            int j = start;
+            for (int k = perm[j]; k != start; k = perm[j]) {
+                checkUnvisited(visited, k);
+                column[j] = column[k];
+                visited[j] = true;
+                j = k;
+            }
+            column[j] = e;
+            visited[j] = true;
+        }
+    }
+
+    public static <T> void applyInPlace(int[] perm, T[] column){
+        checkLength(perm, column.length);
+        boolean[] visited = new boolean[perm.length];
+        for (int start = 0; start < perm.length; start++) {
+            if(visited[start]){
+                continue;
+            }
+            T e = column[start];
+            int j = start;
+            for (int k = perm[j]; k != start; k = perm[j]) {
+                checkUnvisited(visited, k);
+                column[j] = column[k];
+                visited[j] = true;
+                j = k;
+            }
+            column[j] = e;
+            visited[j] = true;
+        }
+    }
+
+    private static void checkLength(int[] perm, int length){
+        if(perm.length != length){
+            throw new IllegalArgumentException("perm and column should have the same length.");
+        }
+    }
+
+    /**
+     * 环中出现已访问过的下标说明perm中有重复的元素
+     */
+    private static void checkUnvisited(boolean[] visited, int k){
+        if(k < 0 || k >= visited.length || visited[k]){
+            throw new IllegalArgumentException("perm is not a permutation.");
+        }
+    }
+}
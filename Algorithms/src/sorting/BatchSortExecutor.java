@@ -0,0 +1,318 @@
+package sorting;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author: lsj
+ * @date: 2026/10/18 22:10
+ * Description: 批量排序服务：把大量互相独立的小数组交给工作窃取线程池(ForkJoinPool)排序，而不是在请求线程中逐个调用Utils。
+ * 1. 按数组长度选择算法：不超过INSERTION_SORT_MAX时使用插入排序；对象数组不超过QUICK_SORT_MAX时使用内省排序，
+ *    更长时使用归并排序；int数组直接使用以排序网络为叶子的归并排序，辅助数组按工作线程复用；
+ * 2. 一批中不超过TINY_ARRAY_MAX的数组被合并成一个任务，每个任务的元素总数约为GROUP_ELEMENTS，
+ *    避免为几十个元素的排序付出一次任务调度的开销；
+ * 3. 每个数组对应一个CompletableFuture，该数组排好序后立即完成，结果为排好序的原数组（原地排序）；
+ * 4. 统计排队中的数组个数以及每个数组从提交到完成的延迟（含排队时间），延迟按2的幂分桶，可以查询近似的分位数。
+ * 对象数组的排序不保证稳定。
+ */
+public class BatchSortExecutor {
+
+    /**
+     * 长度不超过该值时使用插入排序
+     */
+    public static final int INSERTION_SORT_MAX = 16;
+
+    /**
+     * 对象数组长度不超过该值时使用内省排序，否则使用归并排序
+     */
+    public static final int QUICK_SORT_MAX = 1 << 12;
+
+    /**
+     * 长度不超过该值的数组与同一批中的其他小数组合并为一个任务
+     */
+    public static final int TINY_ARRAY_MAX = 256;
+
+    /**
+     * 合并后每个任务的元素总数
+     */
+    public static final int GROUP_ELEMENTS = 1 << 12;
+
+    /**
+     * 工作线程复用的int辅助数组的最大长度，更长的数组每次单独分配
+     */
+    private static final int MAX_CACHED_BUFFER = 1 << 16;
+
+    private static final ThreadLocal<int[]> INT_BUFFER = ThreadLocal.withInitial(() -> new int[0]);
+
+    private final ForkJoinPool pool;
+
+    private final AtomicInteger pending = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder totalLatency = new LongAdder();
+    private final LongAccumulator maxLatency = new LongAccumulator(Math::max, 0);
+    /**
+     * latencyBuckets[b]为延迟在[2^b, 2^(b+1))纳秒内的数组个数（b = 0时也包括0）
+     */
+    private final AtomicLongArray latencyBuckets = new AtomicLongArray(Long.SIZE);
+
+    /**
+     * 使用公共线程池ForkJoinPool.commonPool()
+     */
+    public BatchSortExecutor(){
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param pool 执行排序任务的线程池，由调用者负责关闭
+     */
+    public BatchSortExecutor(ForkJoinPool pool){
+        this.pool = pool;
+    }
+
+    /**
+     * 一个数组的排序请求
+     */
+    private static final class Job<A> {
+        final A arr;
+        final int length;
+        final long submitTime;
+        final CompletableFuture<A> future = new CompletableFuture<>();
+
+        Job(A arr, int length, long submitTime){
+            this.arr = arr;
+            this.length = length;
+            this.submitTime = submitTime;
+        }
+    }
+
+    /**
+     * 对一个数组执行排序的算法
+     */
+    @FunctionalInterface
+    private interface Sorter<A> {
+        void sort(A arr);
+    }
+
+    /**
+     * 排序一个int数组
+     * @return 排序完成后以该数组完成的future
+     */
+    public CompletableFuture<int[]> submit(int[] arr){
+        List<int[]> batch = new ArrayList<>(1);
+        batch.add(arr);
+        return sortAll(batch).get(0);
+    }
+
+    /**
+     * 排序一批int数组
+     * @return 与batch一一对应的future
+     */
+    public List<CompletableFuture<int[]>> sortAll(List<int[]> batch){
+        List<Job<int[]>> jobs = new ArrayList<>(batch.size());
+        long now = System.nanoTime();
+        for (int[] arr : batch) {
+            jobs.add(new Job<>(arr, arr.length, now));
+        }
+        return dispatch(jobs, BatchSortExecutor::sortInts);
+    }
+
+    /**
+     * 使用比较器c排序一个对象数组
+     */
+    public <T> CompletableFuture<T[]> submit(T[] arr, Comparator<? super T> c){
+        List<T[]> batch = new ArrayList<>(1);
+        batch.add(arr);
+        return sortAll(batch, c).get(0);
+    }
+
+    /**
+     * 使用比较器c排序一批对象数组
+     * @return 与batch一一对应的future
+     */
+    public <T> List<CompletableFuture<T[]>> sortAll(List<T[]> batch, Comparator<? super T> c){
+        List<Job<T[]>> jobs = new ArrayList<>(batch.size());
+        long now = System.nanoTime();
+        for (T[] arr : batch) {
+            jobs.add(new Job<>(arr, arr.length, now));
+        }
+        return dispatch(jobs, arr -> sortObjects(arr, c));
+    }
+
+    private static void sortInts(int[] arr){
+        int n = arr.length;
+        if(n <= INSERTION_SORT_MAX){
+            Utils.insertionSort(arr);
+            return;
+        }
+        int[] buffer = INT_BUFFER.get();
+        if(buffer.length < n){
+            buffer = new int[n];
+            if(n <= MAX_CACHED_BUFFER){
+                INT_BUFFER.set(buffer);
+            }
+        }
+        Utils.bufferedMergeSort(arr, buffer);
+    }
+
+    private static <T> void sortObjects(T[] arr, Comparator<? super T> c){
+        int n = arr.length;
+        if(n <= INSERTION_SORT_MAX){
+            Utils.insertionSort(arr, c);
+        }else if(n <= QUICK_SORT_MAX){
+            Utils.introSort(arr, c);
+        }else{
+            Utils.bufferedMergeSort(arr, c);
+        }
+    }
+
+    /**
+     * 将小数组分组后提交到线程池
+     */
+    private <A> List<CompletableFuture<A>> dispatch(List<Job<A>> jobs, Sorter<A> sorter){
+        pending.addAndGet(jobs.size());
+        List<CompletableFuture<A>> futures = new ArrayList<>(jobs.size());
+        List<Job<A>> group = new ArrayList<>();
+        int groupElements = 0;
+        for (Job<A> job : jobs) {
+            futures.add(job.future);
+            if(job.length > TINY_ARRAY_MAX){
+                List<Job<A>> single = new ArrayList<>(1);
+                single.add(job);
+                execute(single, sorter);
+                continue;
+            }
+            group.add(job);
+            groupElements += job.length;
+            //空数组也占一份调度开销，按至少一个元素计
+            groupElements++;
+            if(groupElements >= GROUP_ELEMENTS){
+                execute(group, sorter);
+                group = new ArrayList<>();
+                groupElements = 0;
+            }
+        }
+        if(!group.isEmpty()){
+            execute(group, sorter);
+        }
+        return futures;
+    }
+
+    private <A> void execute(List<Job<A>> group, Sorter<A> sorter){
+        try {
+            pool.execute(() -> {
+                for (Job<A> job : group) {
+                    try {
+                        sorter.sort(job.arr);
+                        record(job);
+                        job.future.complete(job.arr);
+                    } catch (Throwable e) {
+                        //比较器抛出的异常只影响该数组，组内其他数组继续排序
+                        fail(job, e);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            //线程池已关闭等原因拒绝了任务(RejectedExecutionException)，该组的数组不会再被排序，
+            //直接以该异常完成它们的future，否则调用者会一直等待，排队数也不会减少。其他组照常提交
+            for (Job<A> job : group) {
+                fail(job, e);
+            }
+        }
+    }
+
+    private void fail(Job<?> job, Throwable e){
+        failed.increment();
+        pending.decrementAndGet();
+        job.future.completeExceptionally(e);
+    }
+
+    private void record(Job<?> job){
+        long latency = Math.max(System.nanoTime() - job.submitTime, 0);
+        pending.decrementAndGet();
+        completed.increment();
+        totalLatency.add(latency);
+        maxLatency.accumulate(latency);
+        latencyBuckets.incrementAndGet(latency == 0 ? 0 : Long.SIZE - 1 - Long.numberOfLeadingZeros(latency));
+    }
+
+    /**
+     * @return 已提交但还未排序完成的数组个数
+     */
+    public int getQueueDepth() {
+        return pending.get();
+    }
+
+    /**
+     * @return 线程池中排队等待执行的任务个数（一个任务可能包含多个小数组）
+     */
+    public long getQueuedTasks() {
+        return pool.getQueuedSubmissionCount() + pool.getQueuedTaskCount();
+    }
+
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    /**
+     * @return 比较器抛出异常或线程池拒绝执行而未能完成排序的数组个数
+     */
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    /**
+     * @return 已完成的数组从提交到完成的平均延迟，单位为纳秒
+     */
+    public double getMeanLatencyNanos() {
+        long count = completed.sum();
+        return count == 0 ? 0 : (double) totalLatency.sum() / count;
+    }
+
+    public long getMaxLatencyNanos() {
+        return maxLatency.get();
+    }
+
+    /**
+     * 近似的延迟分位数：返回分位数所在的2的幂分桶的上界，误差不超过2倍
+     * @param quantile 分位数，如0.5、0.99
+     * @return 单位为纳秒，没有完成的数组时返回0
+     */
+    public long getLatencyPercentileNanos(double quantile) {
+        if(!(quantile >= 0 && quantile <= 1)){
+            throw new IllegalArgumentException("quantile should be in [0, 1].");
+        }
+        long[] counts = new long[Long.SIZE];
+        long total = 0;
+        for (int b = 0; b < Long.SIZE; b++) {
+            counts[b] = latencyBuckets.get(b);
+            total += counts[b];
+        }
+        if(total == 0){
+            return 0;
+        }
+        long rank = Math.max((long) Math.ceil(quantile * total), 1), seen = 0;
+        for (int b = 0; b < Long.SIZE; b++) {
+            seen += counts[b];
+            if(seen >= rank){
+                return b >= Long.SIZE - 2 ? Long.MAX_VALUE : (1L << (b + 1)) - 1;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BatchSortExecutor{queueDepth=%d, queuedTasks=%d, completed=%d, failed=%d, " +
+                        "meanLatency=%.0fns, p50<=%dns, p99<=%dns, maxLatency=%dns}",
+                getQueueDepth(), getQueuedTasks(), getCompleted(), getFailed(), getMeanLatencyNanos(),
+                getLatencyPercentileNanos(0.5), getLatencyPercentileNanos(0.99), getMaxLatencyNanos());
+    }
+}
@@ -0,0 +1,337 @@
+package sorting;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * @author: lsj
+ * @date: 2026/10/18 19:10
+ * Description: 可复现的测试数据生成器。
+ * Utils.generateRandomArray等方法不使用种子，生成的数据无法复现；这里的随机数来自SplittableRandom：
+ * 数据按CHUNK_SIZE分块，每块的随机数种子由seed和块号唯一确定，因此
+ * 1. 相同的seed、分布和长度总是生成相同的数据，与是否并行填充无关；
+ * 2. 较大的数组按块并行填充，各线程之间没有共享的随机数状态；
+ * 3. 流模式逐块惰性生成，只占用一个块的内存，可以生成数十亿个元素，结果与同样长度的数组模式一致。
+ *
+ * 用法：int[] arr = new DataGenerator(42).distinct(100).intArray(DataGenerator.Distribution.FEW_UNIQUE, 1000000);
+ */
+public final class DataGenerator {
+
+    /**
+     * 数据的分布，n为数据长度，i为元素下标
+     */
+    public enum Distribution {
+        /** [0, bound)上均匀随机 */
+        RANDOM,
+        /** 0, 1, ..., n-1 */
+        SORTED,
+        /** n-1, n-2, ..., 0 */
+        REVERSED,
+        /** 有序序列中约1%的位置替换为[0, n)上的随机值 */
+        NEARLY_ORDERED,
+        /** [0, distinct)上均匀随机，即只有distinct种不同的值 */
+        FEW_UNIQUE,
+        /** [0, zipfElements)上指数为zipfExponent的Zipf分布，值k出现的概率正比于1/(k+1)^zipfExponent */
+        ZIPF,
+        /** 以period为周期重复0, 1, ..., period-1 */
+        SAWTOOTH,
+        /** 先升序再降序，形如管风琴 */
+        ORGAN_PIPE,
+        /** 长度为period的有序片段依次拼接，每段的起点在[0, bound)中随机，模拟不断追加的有序批次 */
+        SORTED_RUNS,
+        /** Musser构造的针对三数取中快排的序列，使其退化为O(n²)，不含随机性 */
+        QUICKSORT_KILLER
+    }
+
+    /**
+     * 每块的元素个数，也是流模式一次生成的元素个数
+     */
+    public static final int CHUNK_SIZE = 1 << 16;
+
+    /**
+     * 数组长度不小于该值时并行填充
+     */
+    public static final int PARALLEL_FILL_THRESHOLD = 1 << 18;
+
+    /**
+     * SplittableRandom使用的黄金分割增量，用于由块号派生种子
+     */
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final long seed;
+    private int bound = Integer.MAX_VALUE;
+    private int distinct = 16;
+    private int zipfElements = 1 << 20;
+    private double zipfExponent = 1.0;
+    private int period = 1000;
+
+    public DataGenerator(long seed){
+        this.seed = seed;
+    }
+
+    /**
+     * RANDOM和SORTED_RUNS的取值上界（不含），默认为Integer.MAX_VALUE
+     */
+    public DataGenerator bound(int bound){
+        if(bound < 1){
+            throw new IllegalArgumentException("bound should be positive.");
+        }
+        this.bound = bound;
+        return this;
+    }
+
+    /**
+     * FEW_UNIQUE中不同取值的个数，默认为16
+     */
+    public DataGenerator distinct(int distinct){
+        if(distinct < 1){
+            throw new IllegalArgumentException("distinct should be positive.");
+        }
+        this.distinct = distinct;
+        return this;
+    }
+
+    /**
+     * ZIPF的取值个数和指数，默认为2^20和1.0
+     */
+    public DataGenerator zipf(int elements, double exponent){
+        if(elements < 1){
+            throw new IllegalArgumentException("elements should be positive.");
+        }
+        if(!(exponent > 0)){
+            throw new IllegalArgumentException("exponent should be positive.");
+        }
+        this.zipfElements = elements;
+        this.zipfExponent = exponent;
+        return this;
+    }
+
+    /**
+     * SAWTOOTH的周期以及SORTED_RUNS每段的长度，默认为1000
+     */
+    public DataGenerator period(int period){
+        if(period < 1){
+            throw new IllegalArgumentException("period should be positive.");
+        }
+        this.period = period;
+        return this;
+    }
+
+    /**
+     * 生成长度为n的int数组，n不小于PARALLEL_FILL_THRESHOLD时使用公共线程池并行填充
+     */
+    public int[] intArray(Distribution d, int n){
+        int[] arr = new int[n];
+        ZipfSampler zipf = zipfSampler(d);
+        chunks(n).forEach(c -> {
+            SplittableRandom random = chunkRandom(c);
+            for (int i = c * CHUNK_SIZE, to = (int) Math.min(n, (long) i + CHUNK_SIZE); i < to; i++) {
+                arr[i] = (int) value(d, n, i, random, zipf);
+            }
+        });
+        return arr;
+    }
+
+    /**
+     * 生成长度为n的long数组
+     */
+    public long[] longArray(Distribution d, int n){
+        long[] arr = new long[n];
+        ZipfSampler zipf = zipfSampler(d);
+        chunks(n).forEach(c -> {
+            SplittableRandom random = chunkRandom(c);
+            for (int i = c * CHUNK_SIZE, to = (int) Math.min(n, (long) i + CHUNK_SIZE); i < to; i++) {
+                arr[i] = value(d, n, i, random, zipf);
+            }
+        });
+        return arr;
+    }
+
+    /**
+     * 生成长度为n的Integer数组，与同样参数的intArray内容相同
+     */
+    public Integer[] boxedArray(Distribution d, int n){
+        int[] values = intArray(d, n);
+        Integer[] arr = new Integer[n];
+        IntStream range = IntStream.range(0, n);
+        if(n >= PARALLEL_FILL_THRESHOLD){
+            range = range.parallel();
+        }
+        range.forEach(i -> arr[i] = values[i]);
+        return arr;
+    }
+
+    /**
+     * 惰性生成n个int，每次只生成一个块。前2^31-1个元素与同样参数的intArray相同。
+     */
+    public IntStream intStream(Distribution d, long n){
+        ZipfSampler zipf = zipfSampler(d);
+        return LongStream.range(0, (n + CHUNK_SIZE - 1) / CHUNK_SIZE).mapToObj(c -> {
+            SplittableRandom random = chunkRandom(c);
+            long from = c * CHUNK_SIZE;
+            int[] chunk = new int[(int) Math.min(CHUNK_SIZE, n - from)];
+            for (int i = 0; i < chunk.length; i++) {
+                chunk[i] = (int) value(d, n, from + i, random, zipf);
+            }
+            return chunk;
+        }).flatMapToInt(IntStream::of);
+    }
+
+    /**
+     * 惰性生成n个long，每次只生成一个块
+     */
+    public LongStream longStream(Distribution d, long n){
+        ZipfSampler zipf = zipfSampler(d);
+        return LongStream.range(0, (n + CHUNK_SIZE - 1) / CHUNK_SIZE).mapToObj(c -> {
+            SplittableRandom random = chunkRandom(c);
+            long from = c * CHUNK_SIZE;
+            long[] chunk = new long[(int) Math.min(CHUNK_SIZE, n - from)];
+            for (int i = 0; i < chunk.length; i++) {
+                chunk[i] = value(d, n, from + i, random, zipf);
+            }
+            return chunk;
+        }).flatMapToLong(LongStream::of);
+    }
+
+    private static IntStream chunks(int n){
+        IntStream chunks = IntStream.range(0, (int) (((long) n + CHUNK_SIZE - 1) / CHUNK_SIZE));
+        return n >= PARALLEL_FILL_THRESHOLD ? chunks.parallel() : chunks;
+    }
+
+    /**
+     * 第c块的随机数生成器，种子只由seed和c决定
+     */
+    private SplittableRandom chunkRandom(long c){
+        return new SplittableRandom(mix64(seed + c * GOLDEN_GAMMA));
+    }
+
+    private ZipfSampler zipfSampler(Distribution d){
+        return d == Distribution.ZIPF ? new ZipfSampler(zipfElements, zipfExponent) : null;
+    }
+
+    /**
+     * 长度为n的序列中下标为i的元素
+     */
+    private long value(Distribution d, long n, long i, SplittableRandom random, ZipfSampler zipf){
+        switch (d){
+            case RANDOM:
+                return random.nextInt(bound);
+            case SORTED:
+                return i;
+            case REVERSED:
+                return n - 1 - i;
+            case NEARLY_ORDERED:
+                return random.nextInt(100) == 0 ? random.nextLong(n) : i;
+            case FEW_UNIQUE:
+                return random.nextInt(distinct);
+            case ZIPF:
+                return zipf.sample(random);
+            case SAWTOOTH:
+                return i % period;
+            case ORGAN_PIPE:
+                return i < n / 2 ? i : n - i;
+            case SORTED_RUNS:
+                //每段的起点由段号决定，与分块方式无关
+                long run = i / period;
+                long base = Math.floorMod(mix64(seed ^ mix64(run + 1)), Math.max((long) bound - period, 1));
+                return base + i % period;
+            case QUICKSORT_KILLER:
+                return quickSortKiller(n, i);
+            default:
+                throw new IllegalArgumentException("Unknown distribution.");
+        }
+    }
+
+    /**
+     * Musser的median-of-3 killer序列：令k = n/2，对i = 1...k，i为奇数时a[i-1] = i, a[i] = k + i，
+     * 之后a[k+i-1] = 2i。k为奇数时第一步还会写入a[k] = 2k，但随后被第二步的a[k] = 2覆盖。这里直接按下标求出该序列的第j项。
+     */
+    private static long quickSortKiller(long n, long j){
+        long k = n / 2;
+        if(j < k){
+            return (j & 1) == 0 ? j + 1 : k + j;
+        }
+        if(j == 2 * k){
+            //n为奇数时最后一个位置未被赋值
+            return 0;
+        }
+        return 2 * (j - k + 1);
+    }
+
+    /**
+     * SplittableRandom使用的64位混合函数(Stafford variant 13)
+     */
+    private static long mix64(long z){
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Zipf分布的采样器，使用Hörmann与Derflinger提出的rejection-inversion方法，每次采样期望O(1)，不需要预先计算概率表。
+     * 记w(x) = x^-exponent，W(x)为w在[1, x]上的积分。值k对应区间[W(k-0.5), W(k+0.5))，其长度不小于w(k)（w是凸函数）。
+     * 在[W(1.5)-w(1), W(n+0.5))上均匀地取u，令x = W⁻¹(u)，k为x四舍五入后的整数，u落在k对应区间的最后w(k)长度内时接受k，
+     * 否则重新取u。因此每个k被接受的概率正比于w(k)，k = 1的区间恰好为w(1)，总是接受。
+     * 采样结果为[1, n]，返回时减1。
+     */
+    private static final class ZipfSampler {
+        private final int n;
+        private final double exponent;
+        /**
+         * u的取值范围[lower, upper)
+         */
+        private final double lower;
+        private final double upper;
+
+        ZipfSampler(int n, double exponent){
+            this.n = n;
+            this.exponent = exponent;
+            lower = integral(1.5) - 1;
+            upper = integral(n + 0.5);
+        }
+
+        long sample(SplittableRandom random){
+            while (true) {
+                double u = lower + random.nextDouble() * (upper - lower);
+                long k = Math.round(inverseIntegral(u));
+                //浮点误差可能使k越界
+                k = Math.max(1, Math.min(k, n));
+                if(u >= integral(k + 0.5) - weight(k)){
+                    return k - 1;
+                }
+            }
+        }
+
+        /**
+         * w(x) = x^-exponent
+         */
+        private double weight(double x){
+            return Math.exp(-exponent * Math.log(x));
+        }
+
+        /**
+         * W(x) = (x^(1-exponent) - 1) / (1-exponent)，exponent为1时为ln(x)。
+         * 使用expm1计算，exponent接近1时也不会损失精度
+         */
+        private double integral(double x){
+            double lnX = Math.log(x);
+            if(exponent == 1){
+                return lnX;
+            }
+            return Math.expm1((1 - exponent) * lnX) / (1 - exponent);
+        }
+
+        /**
+         * W的反函数：x = (1 + (1-exponent)y)^(1/(1-exponent))，exponent为1时为e^y
+         */
+        private double inverseIntegral(double y){
+            if(exponent == 1){
+                return Math.exp(y);
+            }
+            //exponent大于1时W有上界1/(exponent-1)，浮点误差可能使底数略小于0
+            double t = Math.max((1 - exponent) * y, -1);
+            return Math.exp(Math.log1p(t) / (1 - exponent));
+        }
+    }
+}
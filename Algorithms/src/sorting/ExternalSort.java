@@ -0,0 +1,425 @@
+package sorting;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author: lsj
+ * @date: 2026/10/18 16:40
+ * Description: 外部排序，用于排序无法一次装入内存的文件。文件由定长的二进制记录组成，记录的编解码由RecordCodec给出。
+ * 1. 生成顺串：每次读取runSize条记录，使用Utils.bufferedMergeSort在内存中排序后写入临时文件；
+ * 2. 多路归并：每次取fanIn个顺串，使用小根堆进行k路归并，生成一个更长的顺串，直到只剩一个顺串，即为输出文件。
+ * 与归并排序一样，相等的记录保持输入中的相对顺序。读写都通过FileChannel和直接缓冲区进行，bytesRead、bytesWritten、
+ * 顺串个数和归并趟数等统计信息可以通过getMetrics()获取。
+ */
+public class ExternalSort<T extends Comparable<T>> {
+
+    /**
+     * 定长记录的编解码
+     * @param <T> type of records
+     */
+    public interface RecordCodec<T> {
+        /**
+         * @return 每条记录占用的字节数
+         */
+        int recordSize();
+
+        /**
+         * 将记录写入buffer的当前位置
+         */
+        void encode(T record, ByteBuffer buffer);
+
+        /**
+         * 从buffer的当前位置读出一条记录
+         */
+        T decode(ByteBuffer buffer);
+    }
+
+    /**
+     * 8字节大端序的long记录
+     */
+    public static final RecordCodec<Long> LONG_CODEC = new RecordCodec<Long>() {
+        @Override
+        public int recordSize() {
+            return Long.BYTES;
+        }
+
+        @Override
+        public void encode(Long record, ByteBuffer buffer) {
+            buffer.putLong(record);
+        }
+
+        @Override
+        public Long decode(ByteBuffer buffer) {
+            return buffer.getLong();
+        }
+    };
+
+    /**
+     * 外部排序的统计信息
+     */
+    public static class Metrics {
+        private long bytesRead;
+        private long bytesWritten;
+        private long records;
+        private int runs;
+        private int mergePasses;
+
+        public long getBytesRead() {
+            return bytesRead;
+        }
+
+        public long getBytesWritten() {
+            return bytesWritten;
+        }
+
+        public long getRecords() {
+            return records;
+        }
+
+        /**
+         * @return 第一阶段生成的顺串个数
+         */
+        public int getRuns() {
+            return runs;
+        }
+
+        /**
+         * @return 归并的趟数，只有一个顺串时为0
+         */
+        public int getMergePasses() {
+            return mergePasses;
+        }
+
+        @Override
+        public String toString() {
+            return "Metrics{bytesRead=" + bytesRead + ", bytesWritten=" + bytesWritten + ", records=" + records +
+                    ", runs=" + runs + ", mergePasses=" + mergePasses + "}";
+        }
+    }
+
+    public static final int DEFAULT_RUN_SIZE = 1 << 20;
+    public static final int DEFAULT_FAN_IN = 64;
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    private final RecordCodec<T> codec;
+    private final int runSize;
+    private final int fanIn;
+    private final int bufferSize;
+    private final Path tempDir;
+    private Metrics metrics = new Metrics();
+
+    public ExternalSort(RecordCodec<T> codec, Path tempDir){
+        this(codec, DEFAULT_RUN_SIZE, DEFAULT_FAN_IN, DEFAULT_BUFFER_SIZE, tempDir);
+    }
+
+    /**
+     * @param codec 记录的编解码
+     * @param runSize 每个初始顺串的记录条数，即内存中一次排序的记录条数，应根据堆大小设置
+     * @param fanIn 每次归并的顺串个数
+     * @param bufferSize 每个文件读写缓冲区的字节数，归并时共需要(fanIn+1)个缓冲区
+     * @param tempDir 存放临时顺串文件的目录
+     */
+    public ExternalSort(RecordCodec<T> codec, int runSize, int fanIn, int bufferSize, Path tempDir){
+        if(runSize < 1){
+            throw new IllegalArgumentException("runSize should be positive.");
+        }
+        if(fanIn < 2){
+            throw new IllegalArgumentException("fanIn should be at least 2.");
+        }
+        if(bufferSize < codec.recordSize()){
+            throw new IllegalArgumentException("bufferSize is smaller than a record.");
+        }
+        this.codec = codec;
+        this.runSize = runSize;
+        this.fanIn = fanIn;
+        //缓冲区大小取记录大小的整数倍，保证记录不会跨越缓冲区
+        this.bufferSize = bufferSize / codec.recordSize() * codec.recordSize();
+        this.tempDir = tempDir;
+    }
+
+    /**
+     * @return 最近一次排序的统计信息
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * 对input中的记录排序，结果写入output。input与output不能是同一个文件。
+     * @param input 输入文件
+     * @param output 输出文件，已存在时会被覆盖
+     * @throws IOException 读写文件失败
+     */
+    public void sort(Path input, Path output) throws IOException {
+        metrics = new Metrics();
+        List<Path> runs = new ArrayList<>(), next = runs;
+        try {
+            createRuns(input, output, runs);
+            //createRuns在只有一个顺串时已直接写入output
+            while (!runs.isEmpty()) {
+                metrics.mergePasses++;
+                next = new ArrayList<>();
+                boolean lastPass = runs.size() <= fanIn;
+                for (int i = 0; i < runs.size(); i += fanIn) {
+                    List<Path> group = runs.subList(i, Math.min(i + fanIn, runs.size()));
+                    Path target = lastPass ? output : Files.createTempFile(tempDir, "run", ".tmp");
+                    if(!lastPass){
+                        next.add(target);
+                    }
+                    merge(group, target);
+                    for (Path run : group) {
+                        Files.deleteIfExists(run);
+                    }
+                }
+                runs = next;
+            }
+        } finally {
+            //中途失败时，runs中是尚未合并的顺串，next中是本趟已经生成的顺串，两者都需要删除
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+            if(next != runs){
+                for (Path run : next) {
+                    Files.deleteIfExists(run);
+                }
+            }
+        }
+    }
+
+    /**
+     * 生成初始顺串。若输入只能生成一个顺串，则直接写入output，runs为空。
+     */
+    @SuppressWarnings("unchecked")
+    private void createRuns(Path input, Path output, List<Path> runs) throws IOException {
+        int recordSize = codec.recordSize();
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ)) {
+            long size = in.size();
+            if(size % recordSize != 0){
+                throw new IllegalArgumentException("input size is not a multiple of the record size.");
+            }
+            long total = size / recordSize;
+            metrics.records = total;
+            int capacity = (int) Math.min(runSize, Math.max(total, 1));
+            T[] run = (T[]) new Comparable<?>[capacity];
+            //所有顺串共用同一个排序辅助数组，以及读、写各一个缓冲区
+            T[] sortBuffer = (T[]) new Comparable<?>[capacity];
+            ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize);
+            ByteBuffer outBuffer = ByteBuffer.allocateDirect(bufferSize);
+            buffer.flip();
+
+            long remaining = total;
+            do {
+                int count = (int) Math.min(capacity, remaining);
+                for (int i = 0; i < count; i++) {
+                    if(!buffer.hasRemaining()){
+                        fill(in, buffer);
+                    }
+                    run[i] = codec.decode(buffer);
+                }
+                remaining -= count;
+                metrics.runs++;
+
+                T[] sorted = run;
+                if(count < capacity){
+                    sorted = Arrays.copyOf(run, count);
+                }
+                Utils.bufferedMergeSort(sorted, sortBuffer);
+
+                boolean single = runs.isEmpty() && remaining == 0;
+                Path target = single ? output : Files.createTempFile(tempDir, "run", ".tmp");
+                if(!single){
+                    runs.add(target);
+                }
+                write(sorted, count, target, outBuffer);
+            } while (remaining > 0);
+        }
+    }
+
+    private void write(T[] records, int count, Path target, ByteBuffer buffer) throws IOException {
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            buffer.clear();
+            for (int i = 0; i < count; i++) {
+                if(buffer.remaining() < codec.recordSize()){
+                    flush(out, buffer);
+                }
+                codec.encode(records[i], buffer);
+            }
+            flush(out, buffer);
+        }
+    }
+
+    /**
+     * 使用小根堆对一组顺串进行k路归并。堆中存放每个顺串的读取器，按当前记录排序，记录相等时顺串编号小的在前，保证稳定性。
+     */
+    private void merge(List<Path> group, Path target) throws IOException {
+        int k = group.size();
+        @SuppressWarnings("unchecked")
+        RunReader<T>[] heap = (RunReader<T>[]) new RunReader<?>[k];
+        int size = 0;
+        Throwable failure = null;
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (int i = 0; i < k; i++) {
+                //先放入堆中再读取第一条记录，读取失败时由finally关闭
+                RunReader<T> reader = new RunReader<>(group.get(i), i, codec, bufferSize, metrics);
+                heap[size++] = reader;
+                if(!reader.advance()){
+                    reader.close();
+                    heap[--size] = null;
+                }
+            }
+            for (int i = size / 2 - 1; i >= 0; i--) {
+                shiftDown(heap, i, size);
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize);
+            while (size > 0) {
+                RunReader<T> top = heap[0];
+                if(buffer.remaining() < codec.recordSize()){
+                    flush(out, buffer);
+                }
+                codec.encode(top.current, buffer);
+                if(!top.advance()){
+                    top.close();
+                    heap[0] = heap[--size];
+                    heap[size] = null;
+                }
+                shiftDown(heap, 0, size);
+            }
+            flush(out, buffer);
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            closeAll(heap, size, failure);
+        }
+    }
+
+    /**
+     * 关闭heap[0, size)中的所有读取器，某个读取器关闭失败时仍然关闭其余的读取器。
+     * failure不为null时关闭产生的异常都作为它的suppressed异常；否则抛出第一个异常，其余的作为它的suppressed异常
+     */
+    private static void closeAll(RunReader<?>[] heap, int size, Throwable failure) throws IOException {
+        IOException closeFailure = null;
+        for (int i = 0; i < size; i++) {
+            try {
+                heap[i].close();
+            } catch (IOException e) {
+                if(failure != null){
+                    failure.addSuppressed(e);
+                }else if(closeFailure == null){
+                    closeFailure = e;
+                }else{
+                    closeFailure.addSuppressed(e);
+                }
+            }
+        }
+        if(closeFailure != null){
+            throw closeFailure;
+        }
+    }
+
+    private static <T extends Comparable<T>> void shiftDown(RunReader<T>[] heap, int i, int size){
+        RunReader<T> e = heap[i];
+        while (2 * i + 1 < size) {
+            int child = 2 * i + 1;
+            if(child + 1 < size && heap[child + 1].compareTo(heap[child]) < 0){
+                child++;
+            }
+            if(e.compareTo(heap[child]) <= 0){
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = e;
+    }
+
+    /**
+     * 顺串的读取器，current为当前记录
+     */
+    private static final class RunReader<T extends Comparable<T>> implements Comparable<RunReader<T>> {
+        private final FileChannel channel;
+        private final int index;
+        private final RecordCodec<T> codec;
+        private final ByteBuffer buffer;
+        private final Metrics metrics;
+        private T current;
+
+        RunReader(Path path, int index, RecordCodec<T> codec, int bufferSize, Metrics metrics) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            this.index = index;
+            this.codec = codec;
+            this.buffer = ByteBuffer.allocateDirect(bufferSize);
+            this.metrics = metrics;
+            buffer.flip();
+        }
+
+        /**
+         * 读取下一条记录
+         * @return 顺串已读完时返回false
+         */
+        boolean advance() throws IOException {
+            if(!buffer.hasRemaining()){
+                //读满缓冲区，避免一次read只读到半条记录
+                buffer.clear();
+                while (buffer.hasRemaining()) {
+                    int read = channel.read(buffer);
+                    if(read < 0){
+                        break;
+                    }
+                    metrics.bytesRead += read;
+                }
+                buffer.flip();
+                if(!buffer.hasRemaining()){
+                    current = null;
+                    return false;
+                }
+            }
+            current = codec.decode(buffer);
+            return true;
+        }
+
+        void close() throws IOException {
+            channel.close();
+        }
+
+        @Override
+        public int compareTo(RunReader<T> o) {
+            int cmp = current.compareTo(o.current);
+            return cmp != 0 ? cmp : Integer.compare(index, o.index);
+        }
+    }
+
+    /**
+     * 从channel中读满buffer（或读到文件末尾）
+     */
+    private void fill(FileChannel in, ByteBuffer buffer) throws IOException {
+        buffer.clear();
+        while (buffer.hasRemaining()) {
+            int read = in.read(buffer);
+            if(read < 0){
+                break;
+            }
+            metrics.bytesRead += read;
+        }
+        buffer.flip();
+    }
+
+    private void flush(FileChannel out, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            metrics.bytesWritten += out.write(buffer);
+        }
+        buffer.clear();
+    }
+}
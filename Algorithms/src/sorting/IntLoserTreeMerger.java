@@ -0,0 +1,123 @@
+package sorting;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * @author: lsj
+ * @date: 2026/10/18 20:20
+ * Description: int版本的败者树k路归并，算法与LoserTreeMerger相同，元素不装箱。
+ */
+public class IntLoserTreeMerger implements PrimitiveIterator.OfInt {
+
+    private final PrimitiveIterator.OfInt[] sources;
+    private final int k;
+    private final int[] heads;
+    private final boolean[] exhausted;
+    private final int[] tree;
+
+    /**
+     * @param sources 有序的输入，每一路升序
+     */
+    public IntLoserTreeMerger(List<? extends PrimitiveIterator.OfInt> sources){
+        this.sources = sources.toArray(new PrimitiveIterator.OfInt[0]);
+        this.k = this.sources.length;
+        this.heads = new int[k];
+        this.exhausted = new boolean[k];
+        this.tree = new int[Math.max(k, 1)];
+        for (int s = 0; s < k; s++) {
+            advance(s);
+        }
+        if(k > 0){
+            tree[0] = build(1);
+        }
+    }
+
+    /**
+     * 合并若干有序数组
+     */
+    public static IntLoserTreeMerger ofArrays(int[]... arrays){
+        List<PrimitiveIterator.OfInt> sources = new ArrayList<>(arrays.length);
+        for (int[] arr : arrays) {
+            sources.add(Arrays.stream(arr).iterator());
+        }
+        return new IntLoserTreeMerger(sources);
+    }
+
+    private int build(int node){
+        if(node >= k){
+            return node - k;
+        }
+        int left = build(2 * node), right = build(2 * node + 1);
+        if(beats(left, right)){
+            tree[node] = right;
+            return left;
+        }
+        tree[node] = left;
+        return right;
+    }
+
+    private boolean beats(int a, int b){
+        if(exhausted[a]){
+            return false;
+        }
+        if(exhausted[b]){
+            return true;
+        }
+        return heads[a] < heads[b] || (heads[a] == heads[b] && a < b);
+    }
+
+    private void advance(int s){
+        if(sources[s].hasNext()){
+            heads[s] = sources[s].nextInt();
+        }else{
+            exhausted[s] = true;
+        }
+    }
+
+    private void replay(int winner){
+        for (int node = (winner + k) >> 1; node > 0; node >>= 1) {
+            if(beats(tree[node], winner)){
+                int t = tree[node];
+                tree[node] = winner;
+                winner = t;
+            }
+        }
+        tree[0] = winner;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return k > 0 && !exhausted[tree[0]];
+    }
+
+    @Override
+    public int nextInt() {
+        if(!hasNext()){
+            throw new NoSuchElementException();
+        }
+        int winner = tree[0];
+        int e = heads[winner];
+        advance(winner);
+        replay(winner);
+        return e;
+    }
+
+    /**
+     * 批量输出：最多取出length个元素写入buffer[offset...]
+     * @return 实际写入的元素个数，所有输入都已读完时返回0
+     */
+    public int next(int[] buffer, int offset, int length){
+        int n = 0;
+        while (n < length && hasNext()) {
+            int winner = tree[0];
+            buffer[offset + n++] = heads[winner];
+            advance(winner);
+            replay(winner);
+        }
+        return n;
+    }
+}
@@ -0,0 +1,246 @@
+package sorting;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * @author: lsj
+ * @date: 2026/10/18 20:20
+ * Description: long版本的败者树k路归并，算法与LoserTreeMerger相同，元素不装箱。
+ * 除数组和迭代器外，还可以直接合并内存映射的有序文件（8字节大端序long，与ExternalSort.LONG_CODEC的格式相同）。
+ * 合并文件时每个文件在读完前保持打开，提前结束合并时应调用close。
+ */
+public class LongLoserTreeMerger implements PrimitiveIterator.OfLong, Closeable {
+
+    /**
+     * 映射文件时每个窗口的字节数
+     */
+    private static final long MAP_WINDOW = 1L << 28;
+
+    private final PrimitiveIterator.OfLong[] sources;
+    private final int k;
+    private final long[] heads;
+    private final boolean[] exhausted;
+    private final int[] tree;
+
+    /**
+     * @param sources 有序的输入，每一路升序
+     */
+    public LongLoserTreeMerger(List<? extends PrimitiveIterator.OfLong> sources){
+        this.sources = sources.toArray(new PrimitiveIterator.OfLong[0]);
+        this.k = this.sources.length;
+        this.heads = new long[k];
+        this.exhausted = new boolean[k];
+        this.tree = new int[Math.max(k, 1)];
+        for (int s = 0; s < k; s++) {
+            advance(s);
+        }
+        if(k > 0){
+            tree[0] = build(1);
+        }
+    }
+
+    /**
+     * 合并若干有序数组
+     */
+    public static LongLoserTreeMerger ofArrays(long[]... arrays){
+        List<PrimitiveIterator.OfLong> sources = new ArrayList<>(arrays.length);
+        for (long[] arr : arrays) {
+            sources.add(Arrays.stream(arr).iterator());
+        }
+        return new LongLoserTreeMerger(sources);
+    }
+
+    /**
+     * 合并若干有序文件。文件以只读方式映射到内存，按窗口依次映射，读取时不经过Java堆上的缓冲区。
+     * 映射窗口失败时nextLong抛出UncheckedIOException。
+     * @param files 每个文件由升序的8字节大端序long组成
+     * @throws IOException 打开或映射文件失败
+     */
+    public static LongLoserTreeMerger ofMappedFiles(List<Path> files) throws IOException {
+        List<PrimitiveIterator.OfLong> sources = new ArrayList<>(files.size());
+        try {
+            for (Path file : files) {
+                sources.add(new MappedLongIterator(file));
+            }
+            return new LongLoserTreeMerger(sources);
+        } catch (IOException | RuntimeException e) {
+            //关闭已经打开的文件
+            for (PrimitiveIterator.OfLong source : sources) {
+                try {
+                    ((MappedLongIterator) source).close();
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            throw e;
+        }
+    }
+
+    private int build(int node){
+        if(node >= k){
+            return node - k;
+        }
+        int left = build(2 * node), right = build(2 * node + 1);
+        if(beats(left, right)){
+            tree[node] = right;
+            return left;
+        }
+        tree[node] = left;
+        return right;
+    }
+
+    private boolean beats(int a, int b){
+        if(exhausted[a]){
+            return false;
+        }
+        if(exhausted[b]){
+            return true;
+        }
+        return heads[a] < heads[b] || (heads[a] == heads[b] && a < b);
+    }
+
+    private void advance(int s){
+        if(sources[s].hasNext()){
+            heads[s] = sources[s].nextLong();
+        }else{
+            exhausted[s] = true;
+        }
+    }
+
+    private void replay(int winner){
+        for (int node = (winner + k) >> 1; node > 0; node >>= 1) {
+            if(beats(tree[node], winner)){
+                int t = tree[node];
+                tree[node] = winner;
+                winner = t;
+            }
+        }
+        tree[0] = winner;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return k > 0 && !exhausted[tree[0]];
+    }
+
+    @Override
+    public long nextLong() {
+        if(!hasNext()){
+            throw new NoSuchElementException();
+        }
+        int winner = tree[0];
+        long e = heads[winner];
+        advance(winner);
+        replay(winner);
+        return e;
+    }
+
+    /**
+     * 批量输出：最多取出length个元素写入buffer[offset...]
+     * @return 实际写入的元素个数，所有输入都已读完时返回0
+     */
+    public int next(long[] buffer, int offset, int length){
+        int n = 0;
+        while (n < length && hasNext()) {
+            int winner = tree[0];
+            buffer[offset + n++] = heads[winner];
+            advance(winner);
+            replay(winner);
+        }
+        return n;
+    }
+
+    /**
+     * 关闭合并文件时仍未读完的文件，已映射的窗口仍然可以读取。合并数组或迭代器时不做任何事。
+     */
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (PrimitiveIterator.OfLong source : sources) {
+            if(source instanceof MappedLongIterator){
+                try {
+                    ((MappedLongIterator) source).close();
+                } catch (IOException e) {
+                    if(failure == null){
+                        failure = e;
+                    }else{
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+        }
+        if(failure != null){
+            throw failure;
+        }
+    }
+
+    /**
+     * 按窗口映射文件并依次读出long。每个文件只打开一个FileChannel，映射完最后一个窗口后关闭，
+     * 映射在缓冲区被回收前一直有效。
+     */
+    private static final class MappedLongIterator implements PrimitiveIterator.OfLong, Closeable {
+        private final Path file;
+        private final FileChannel channel;
+        private final long size;
+        private long position;
+        private LongBuffer window;
+
+        MappedLongIterator(Path file) throws IOException {
+            this.file = file;
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            try {
+                this.size = channel.size();
+                if(size % Long.BYTES != 0){
+                    throw new IllegalArgumentException(file + " is not a sequence of longs.");
+                }
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+            if(size == 0){
+                channel.close();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return (window != null && window.hasRemaining()) || position < size;
+        }
+
+        @Override
+        public long nextLong() {
+            if(window == null || !window.hasRemaining()){
+                if(position >= size){
+                    throw new NoSuchElementException();
+                }
+                long length = Math.min(MAP_WINDOW, size - position);
+                try {
+                    window = channel.map(FileChannel.MapMode.READ_ONLY, position, length).asLongBuffer();
+                    position += length;
+                    if(position >= size){
+                        channel.close();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException("failed to map " + file, e);
+                }
+            }
+            return window.get();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package sorting;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * @author: lsj
+ * @date: 2026/10/18 20:20
+ * Description: 基于败者树(loser tree)的k路归并，将k个有序的输入合并为一个有序的输出。
+ * 败者树是一棵有k个叶子的完全二叉树，叶子k+s对应第s路输入，内部节点1...k-1记录该节点处比赛的败者，tree[0]记录总的胜者。
+ * 取出胜者后只需让该路的下一个元素沿叶子到根的路径与各节点的败者比较，每输出一个元素约进行log₂k次比较，
+ * 比二叉堆的下沉（每层两次比较）少一半。已读完的输入视为+∞。
+ * 元素相等时编号较小的输入优先，因此合并是稳定的。
+ *
+ * 输出是拉取式的：既可以作为Iterator逐个读取，也可以通过next(buffer, offset, length)一次填满调用者提供的缓冲区，
+ * 减少逐个调用的开销。基本类型的版本见IntLoserTreeMerger与LongLoserTreeMerger。
+ */
+public class LoserTreeMerger<T> implements Iterator<T> {
+
+    private final Iterator<? extends T>[] sources;
+    private final Comparator<? super T> c;
+    private final int k;
+    /**
+     * heads[s]为第s路当前的元素
+     */
+    private final Object[] heads;
+    private final boolean[] exhausted;
+    /**
+     * tree[1...k-1]为各内部节点的败者，tree[0]为胜者
+     */
+    private final int[] tree;
+
+    /**
+     * @param sources 有序的输入，每一路按比较器c升序
+     * @param c comparator
+     */
+    @SuppressWarnings("unchecked")
+    public LoserTreeMerger(List<? extends Iterator<? extends T>> sources, Comparator<? super T> c){
+        this.sources = (Iterator<? extends T>[]) sources.toArray(new Iterator<?>[0]);
+        this.c = c;
+        this.k = this.sources.length;
+        this.heads = new Object[k];
+        this.exhausted = new boolean[k];
+        this.tree = new int[Math.max(k, 1)];
+        for (int s = 0; s < k; s++) {
+            advance(s);
+        }
+        if(k > 0){
+            tree[0] = build(1);
+        }
+    }
+
+    /**
+     * 合并若干有序数组
+     */
+    public static <T> LoserTreeMerger<T> ofArrays(List<T[]> arrays, Comparator<? super T> c){
+        List<Iterator<T>> sources = new ArrayList<>(arrays.size());
+        for (T[] arr : arrays) {
+            sources.add(Arrays.asList(arr).iterator());
+        }
+        return new LoserTreeMerger<>(sources, c);
+    }
+
+    /**
+     * 合并若干按自然顺序有序的数组
+     */
+    public static <T extends Comparable<T>> LoserTreeMerger<T> ofArrays(List<T[]> arrays){
+        return ofArrays(arrays, Comparator.<T>naturalOrder());
+    }
+
+    /**
+     * 自底向上进行初始比赛，返回以node为根的子树的胜者
+     */
+    private int build(int node){
+        if(node >= k){
+            return node - k;
+        }
+        int left = build(2 * node), right = build(2 * node + 1);
+        if(beats(left, right)){
+            tree[node] = right;
+            return left;
+        }
+        tree[node] = left;
+        return right;
+    }
+
+    /**
+     * 第a路是否胜过第b路：已读完的一路总是失败，元素相等时编号小的一路胜出
+     */
+    @SuppressWarnings("unchecked")
+    private boolean beats(int a, int b){
+        if(exhausted[a]){
+            return false;
+        }
+        if(exhausted[b]){
+            return true;
+        }
+        int cmp = c.compare((T) heads[a], (T) heads[b]);
+        return cmp < 0 || (cmp == 0 && a < b);
+    }
+
+    private void advance(int s){
+        if(sources[s].hasNext()){
+            heads[s] = sources[s].next();
+        }else{
+            heads[s] = null;
+            exhausted[s] = true;
+        }
+    }
+
+    /**
+     * 第winner路读入下一个元素后，从其叶子到根重新比赛
+     */
+    private void replay(int winner){
+        for (int node = (winner + k) >> 1; node > 0; node >>= 1) {
+            if(beats(tree[node], winner)){
+                int t = tree[node];
+                tree[node] = winner;
+                winner = t;
+            }
+        }
+        tree[0] = winner;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return k > 0 && !exhausted[tree[0]];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T next() {
+        if(!hasNext()){
+            throw new NoSuchElementException();
+        }
+        int winner = tree[0];
+        T e = (T) heads[winner];
+        advance(winner);
+        replay(winner);
+        return e;
+    }
+
+    /**
+     * 批量输出：最多取出length个元素写入buffer[offset...]
+     * @return 实际写入的元素个数，所有输入都已读完时返回0
+     */
+    @SuppressWarnings("unchecked")
+    public int next(T[] buffer, int offset, int length){
+        int n = 0;
+        while (n < length && hasNext()) {
+            int winner = tree[0];
+            buffer[offset + n++] = (T) heads[winner];
+            advance(winner);
+            replay(winner);
+        }
+        return n;
+    }
+}
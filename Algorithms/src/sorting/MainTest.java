@@ -30,12 +30,61 @@ public class MainTest {
         Integer[] array8 = Utils.generateNearlyOrderedArray(100000, 100);
         Integer[] array9 = Arrays.copyOf(array8, array8.length);
         Integer[] array10 = Arrays.copyOf(array8, array8.length);
+        Integer[] array11 = Arrays.copyOf(array8, array8.length);
 
         Utils.testSort("mergeSort", array8);
         //需要调整虚拟机栈-Xss3m，否则会栈溢出
         Utils.testSort("quickSort", array9);
         //使用随机化快排
         Utils.testSort("randomizedQuickSort", array10);
+        //内省排序，无需调整-Xss
+        Utils.testSort("introSort", array11);
+
+        System.out.println("===============================================");
+        System.out.println("测试含有大量重复元素数组的排序：");
+        Integer[] array12 = Utils.generateRandomArray(50000, 0, 10);
+        Integer[] array13 = Arrays.copyOf(array12, array12.length);
+        Integer[] array14 = Arrays.copyOf(array12, array12.length);
+        Integer[] array15 = Arrays.copyOf(array12, array12.length);
+
+        Utils.testSort("quickSort", array12);
+        Utils.testSort("introSort", array13);
+        Utils.testSort("quickSort3Ways", array14);
+        Utils.testSort("dualPivotQuickSort", array15);
+
+        System.out.println("===============================================");
+        System.out.println("测试基本类型数组的排序：");
+        int[] intArray = Utils.generateRandomIntArray(50000, 0, 10000);
+        Utils.testSort("insertionSort", Arrays.copyOf(intArray, intArray.length));
+        Utils.testSort("mergeSort", Arrays.copyOf(intArray, intArray.length));
+        Utils.testSort("mergeSortBottomUp", Arrays.copyOf(intArray, intArray.length));
+        Utils.testSort("quickSort", Arrays.copyOf(intArray, intArray.length));
+        Utils.testSort("heapSort", Arrays.copyOf(intArray, intArray.length));
+        int[] intArray2 = Utils.generateNearlyOrderedIntArray(100000, 100);
+        Utils.testSort("randomizedQuickSort", intArray2);
+
+        System.out.println("===============================================");
+        System.out.println("测试含有NaN和±0.0的double数组的排序：");
+        double[] doubleArray = Utils.generateRandomDoubleArray(1000, -10, 10);
+        doubleArray[0] = Double.NaN;
+        doubleArray[1] = 0.0;
+        doubleArray[2] = -0.0;
+        doubleArray[500] = Double.NaN;
+        doubleArray[501] = -0.0;
+        doubleArray[999] = 0.0;
+        double[] expected = Arrays.copyOf(doubleArray, doubleArray.length);
+        Arrays.sort(expected);
+        String[] doubleSorts = {"insertionSort", "mergeSort", "mergeSortBottomUp", "bufferedMergeSort",
+                "bufferedMergeSortBottomUp", "quickSort", "randomizedQuickSort", "heapSort"};
+        for (String methodName : doubleSorts) {
+            double[] copy = Arrays.copyOf(doubleArray, doubleArray.length);
+            try {
+                Utils.class.getMethod(methodName, double[].class).invoke(null, (Object) copy);
+            } catch (ReflectiveOperationException e) {
+                throw new RuntimeException(e);
+            }
+            System.out.println(methodName + (Arrays.equals(copy, expected) ? " : 与Arrays.sort一致" : " : 与Arrays.sort不一致"));
+        }
 
     }
 }
@@ -0,0 +1,469 @@
+package sorting;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.IntStream;
+
+/**
+ * @author: lsj
+ * @date: 2026/10/18 16:05
+ * Description: 基数排序。基数排序不基于比较，时间复杂度为O(n*k)，k为关键字的位数，适合定长的整数关键字和较短的字符串。
+ * 1. LSD（低位优先）基数排序：用于int[]和long[]，以及按int/long关键字排序对象数组。每次按一个字节(8位)做一轮计数排序，
+ *    int需要4轮，long需要8轮。所有轮次的计数在排序开始前一次性统计好（数组较大时并行统计），
+ *    某一轮所有元素的该字节都相同时直接跳过该轮。
+ * 2. MSD（高位优先）基数排序：用于String[]和byte[][]，从第一个字符开始按字符分桶，再对每个桶递归处理下一个字符，
+ *    桶较小时改用插入排序。
+ */
+public final class RadixSort {
+
+    /**
+     * 每一轮处理的位数
+     */
+    private static final int RADIX_BITS = 8;
+
+    /**
+     * 基数，即每一轮的桶个数
+     */
+    private static final int RADIX = 1 << RADIX_BITS;
+
+    private static final int MASK = RADIX - 1;
+
+    /**
+     * MSD基数排序中，桶的大小不超过该值时使用插入排序
+     */
+    private static final int MSD_INSERTION_SORT_THRESHOLD = 16;
+
+    /**
+     * 数组长度不小于该值时并行统计计数
+     */
+    public static final int PARALLEL_HISTOGRAM_THRESHOLD = 1 << 16;
+
+    private RadixSort(){
+    }
+
+    /* ============================ LSD：int[] ============================ */
+
+    /**
+     * 对int数组进行LSD基数排序
+     * @param arr array to be sorted
+     */
+    public static void sort(int[] arr){
+        sort(arr, new int[arr.length]);
+    }
+
+    /**
+     * 使用调用者提供的辅助数组对int数组进行LSD基数排序，排序过程中除计数数组外不分配内存
+     * @param arr array to be sorted
+     * @param buffer 辅助数组，长度不小于arr.length
+     */
+    public static void sort(int[] arr, int[] buffer){
+        checkBuffer(arr.length, buffer.length);
+        int n = arr.length;
+        int[][] counts = histogram(arr);
+
+        int[] src = arr, dest = buffer;
+        for (int pass = 0; pass < Integer.BYTES; pass++) {
+            int[] count = counts[pass];
+            if(isTrivialPass(count, n)){
+                continue;
+            }
+            toOffsets(count);
+            int shift = pass * RADIX_BITS;
+            for (int i = 0; i < n; i++) {
+                int e = src[i];
+                dest[count[digit(e, shift, pass == Integer.BYTES - 1)]++] = e;
+            }
+            int[] temp = src;
+            src = dest;
+            dest = temp;
+        }
+        if(src != arr){
+            System.arraycopy(src, 0, arr, 0, n);
+        }
+    }
+
+    /**
+     * 取出int的第shift位开始的一个字节。最高字节需要翻转符号位，使负数排在正数之前。
+     */
+    private static int digit(int e, int shift, boolean highest){
+        int d = (e >>> shift) & MASK;
+        return highest ? d ^ (RADIX >>> 1) : d;
+    }
+
+    /**
+     * 统计每一轮中每个桶的元素个数，counts[pass][bucket]
+     */
+    private static int[][] histogram(int[] arr){
+        int n = arr.length;
+        if(n < PARALLEL_HISTOGRAM_THRESHOLD || ForkJoinPool.getCommonPoolParallelism() == 1){
+            return histogram(arr, 0, n);
+        }
+        //按线程数分块并行统计，再将各块的计数相加
+        int chunks = Math.min(ForkJoinPool.getCommonPoolParallelism() * 4, n / (PARALLEL_HISTOGRAM_THRESHOLD / 4));
+        return IntStream.range(0, chunks).parallel()
+                .mapToObj(c -> histogram(arr, (int) ((long) n * c / chunks), (int) ((long) n * (c + 1) / chunks)))
+                .reduce(RadixSort::addCounts)
+                .orElseGet(() -> new int[Integer.BYTES][RADIX]);
+    }
+
+    private static int[][] histogram(int[] arr, int from, int to){
+        int[][] counts = new int[Integer.BYTES][RADIX];
+        for (int i = from; i < to; i++) {
+            int e = arr[i];
+            for (int pass = 0; pass < Integer.BYTES; pass++) {
+                counts[pass][digit(e, pass * RADIX_BITS, pass == Integer.BYTES - 1)]++;
+            }
+        }
+        return counts;
+    }
+
+    /* ============================ LSD：long[] ============================ */
+
+    /**
+     * 对long数组进行LSD基数排序
+     * @param arr array to be sorted
+     */
+    public static void sort(long[] arr){
+        sort(arr, new long[arr.length]);
+    }
+
+    /**
+     * 使用调用者提供的辅助数组对long数组进行LSD基数排序
+     * @param arr array to be sorted
+     * @param buffer 辅助数组，长度不小于arr.length
+     */
+    public static void sort(long[] arr, long[] buffer){
+        checkBuffer(arr.length, buffer.length);
+        int n = arr.length;
+        int[][] counts = histogram(arr);
+
+        long[] src = arr, dest = buffer;
+        for (int pass = 0; pass < Long.BYTES; pass++) {
+            int[] count = counts[pass];
+            if(isTrivialPass(count, n)){
+                continue;
+            }
+            toOffsets(count);
+            int shift = pass * RADIX_BITS;
+            for (int i = 0; i < n; i++) {
+                long e = src[i];
+                dest[count[digit(e, shift, pass == Long.BYTES - 1)]++] = e;
+            }
+            long[] temp = src;
+            src = dest;
+            dest = temp;
+        }
+        if(src != arr){
+            System.arraycopy(src, 0, arr, 0, n);
+        }
+    }
+
+    private static int digit(long e, int shift, boolean highest){
+        int d = (int) (e >>> shift) & MASK;
+        return highest ? d ^ (RADIX >>> 1) : d;
+    }
+
+    private static int[][] histogram(long[] arr){
+        int n = arr.length;
+        if(n < PARALLEL_HISTOGRAM_THRESHOLD || ForkJoinPool.getCommonPoolParallelism() == 1){
+            return histogram(arr, 0, n);
+        }
+        int chunks = Math.min(ForkJoinPool.getCommonPoolParallelism() * 4, n / (PARALLEL_HISTOGRAM_THRESHOLD / 4));
+        return IntStream.range(0, chunks).parallel()
+                .mapToObj(c -> histogram(arr, (int) ((long) n * c / chunks), (int) ((long) n * (c + 1) / chunks)))
+                .reduce(RadixSort::addCounts)
+                .orElseGet(() -> new int[Long.BYTES][RADIX]);
+    }
+
+    private static int[][] histogram(long[] arr, int from, int to){
+        int[][] counts = new int[Long.BYTES][RADIX];
+        for (int i = from; i < to; i++) {
+            long e = arr[i];
+            for (int pass = 0; pass < Long.BYTES; pass++) {
+                counts[pass][digit(e, pass * RADIX_BITS, pass == Long.BYTES - 1)]++;
+            }
+        }
+        return counts;
+    }
+
+    /* ============================ LSD：按关键字排序对象 ============================ */
+
+    /**
+     * 按int关键字对对象数组进行LSD基数排序。每个元素的关键字只提取一次，排序是稳定的。
+     * @param arr array to be sorted
+     * @param keyExtractor 关键字提取函数
+     * @param <T> type of elements
+     */
+    public static <T> void sortByIntKey(T[] arr, ToIntFunction<? super T> keyExtractor){
+        int n = arr.length;
+        int[] keys = new int[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = keyExtractor.applyAsInt(arr[i]);
+        }
+        int[][] counts = histogram(keys);
+
+        int[] srcKeys = keys, destKeys = new int[n];
+        T[] src = arr, dest = Arrays.copyOf(arr, n);
+        for (int pass = 0; pass < Integer.BYTES; pass++) {
+            int[] count = counts[pass];
+            if(isTrivialPass(count, n)){
+                continue;
+            }
+            toOffsets(count);
+            int shift = pass * RADIX_BITS;
+            for (int i = 0; i < n; i++) {
+                int pos = count[digit(srcKeys[i], shift, pass == Integer.BYTES - 1)]++;
+                destKeys[pos] = srcKeys[i];
+                dest[pos] = src[i];
+            }
+            int[] tempKeys = srcKeys;
+            srcKeys = destKeys;
+            destKeys = tempKeys;
+            T[] temp = src;
+            src = dest;
+            dest = temp;
+        }
+        if(src != arr){
+            System.arraycopy(src, 0, arr, 0, n);
+        }
+    }
+
+    /**
+     * 按long关键字对对象数组进行LSD基数排序。每个元素的关键字只提取一次，排序是稳定的。
+     * @param arr array to be sorted
+     * @param keyExtractor 关键字提取函数
+     * @param <T> type of elements
+     */
+    public static <T> void sortByLongKey(T[] arr, ToLongFunction<? super T> keyExtractor){
+        int n = arr.length;
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = keyExtractor.applyAsLong(arr[i]);
+        }
+        int[][] counts = histogram(keys);
+
+        long[] srcKeys = keys, destKeys = new long[n];
+        T[] src = arr, dest = Arrays.copyOf(arr, n);
+        for (int pass = 0; pass < Long.BYTES; pass++) {
+            int[] count = counts[pass];
+            if(isTrivialPass(count, n)){
+                continue;
+            }
+            toOffsets(count);
+            int shift = pass * RADIX_BITS;
+            for (int i = 0; i < n; i++) {
+                int pos = count[digit(srcKeys[i], shift, pass == Long.BYTES - 1)]++;
+                destKeys[pos] = srcKeys[i];
+                dest[pos] = src[i];
+            }
+            long[] tempKeys = srcKeys;
+            srcKeys = destKeys;
+            destKeys = tempKeys;
+            T[] temp = src;
+            src = dest;
+            dest = temp;
+        }
+        if(src != arr){
+            System.arraycopy(src, 0, arr, 0, n);
+        }
+    }
+
+    /* ============================ MSD：String[] ============================ */
+
+    /**
+     * 对字符串数组进行MSD基数排序，结果与String.compareTo的顺序一致。
+     * 每个char按高字节、低字节拆成两位；ASCII字符串的高字节都为0，这一位所有元素落入同一个桶，不需要分配。
+     * @param arr array to be sorted
+     */
+    public static void sort(String[] arr){
+        sort(arr, 0, arr.length - 1, 0, new String[arr.length]);
+    }
+
+    /**
+     * 对[leftIndex, rightIndex]区间按第d位进行MSD基数排序，区间内的字符串前d位都相同
+     */
+    private static void sort(String[] arr, int leftIndex, int rightIndex, int d, String[] aux){
+        if(rightIndex - leftIndex + 1 <= MSD_INSERTION_SORT_THRESHOLD){
+            Utils.insertionSort(arr, leftIndex, rightIndex);
+            return;
+        }
+        //count[1]为已经结束的字符串个数，count[r+2]为第d位等于r的字符串个数
+        int[] count = new int[RADIX + 2];
+        while(true){
+            for (int i = leftIndex; i <= rightIndex; i++) {
+                count[digit(arr[i], d) + 2]++;
+            }
+            int single = singleBucket(count, rightIndex - leftIndex + 1);
+            if(single == 1){
+                //所有字符串都已结束，即全部相等
+                return;
+            }
+            if(single < 0){
+                break;
+            }
+            //所有字符串的第d位都相同，直接处理下一位
+            count[single] = 0;
+            d++;
+        }
+
+        for (int r = 0; r < RADIX + 1; r++) {
+            count[r + 1] += count[r];
+        }
+        for (int i = leftIndex; i <= rightIndex; i++) {
+            aux[count[digit(arr[i], d) + 1]++] = arr[i];
+        }
+        System.arraycopy(aux, 0, arr, leftIndex, rightIndex - leftIndex + 1);
+
+        //已经结束的字符串排在最前面且全部相等，无需递归
+        for (int r = 0; r < RADIX; r++) {
+            if(count[r + 1] - count[r] > 1){
+                sort(arr, leftIndex + count[r], leftIndex + count[r + 1] - 1, d + 1, aux);
+            }
+        }
+    }
+
+    /**
+     * 返回字符串第d位的值，字符串已经结束时返回-1
+     */
+    private static int digit(String s, int d){
+        int index = d >> 1;
+        if(index >= s.length()){
+            return -1;
+        }
+        char c = s.charAt(index);
+        return (d & 1) == 0 ? c >>> RADIX_BITS : c & MASK;
+    }
+
+    /* ============================ MSD：byte[][] ============================ */
+
+    /**
+     * 对字节数组的数组进行MSD基数排序，字节按无符号数比较，较短的前缀排在前面
+     * @param arr array to be sorted
+     */
+    public static void sort(byte[][] arr){
+        sort(arr, 0, arr.length - 1, 0, new byte[arr.length][]);
+    }
+
+    private static void sort(byte[][] arr, int leftIndex, int rightIndex, int d, byte[][] aux){
+        if(rightIndex - leftIndex + 1 <= MSD_INSERTION_SORT_THRESHOLD){
+            insertionSort(arr, leftIndex, rightIndex, d);
+            return;
+        }
+        int[] count = new int[RADIX + 2];
+        while(true){
+            for (int i = leftIndex; i <= rightIndex; i++) {
+                count[digit(arr[i], d) + 2]++;
+            }
+            int single = singleBucket(count, rightIndex - leftIndex + 1);
+            if(single == 1){
+                return;
+            }
+            if(single < 0){
+                break;
+            }
+            count[single] = 0;
+            d++;
+        }
+
+        for (int r = 0; r < RADIX + 1; r++) {
+            count[r + 1] += count[r];
+        }
+        for (int i = leftIndex; i <= rightIndex; i++) {
+            aux[count[digit(arr[i], d) + 1]++] = arr[i];
+        }
+        System.arraycopy(aux, 0, arr, leftIndex, rightIndex - leftIndex + 1);
+
+        for (int r = 0; r < RADIX; r++) {
+            if(count[r + 1] - count[r] > 1){
+                sort(arr, leftIndex + count[r], leftIndex + count[r + 1] - 1, d + 1, aux);
+            }
+        }
+    }
+
+    private static int digit(byte[] key, int d){
+        return d < key.length ? key[d] & MASK : -1;
+    }
+
+    /**
+     * 对[leftIndex, rightIndex]区间执行插入排序，区间内的字节数组前d位都相同，因此从第d位开始比较
+     */
+    private static void insertionSort(byte[][] arr, int leftIndex, int rightIndex, int d){
+        for (int i = leftIndex + 1; i <= rightIndex; i++) {
+            byte[] e = arr[i];
+            int j;
+            for (j = i; j > leftIndex && compare(arr[j-1], e, d) > 0; j--) {
+                arr[j] = arr[j-1];
+            }
+            arr[j] = e;
+        }
+    }
+
+    /**
+     * 从第d位开始按无符号字节比较两个字节数组
+     */
+    private static int compare(byte[] a, byte[] b, int d){
+        int len = Math.min(a.length, b.length);
+        for (int i = d; i < len; i++) {
+            int cmp = (a[i] & MASK) - (b[i] & MASK);
+            if(cmp != 0){
+                return cmp;
+            }
+        }
+        return a.length - b.length;
+    }
+
+    /* ============================ 公共方法 ============================ */
+
+    /**
+     * 若所有元素都落入同一个桶，则这一轮不需要分配
+     */
+    private static boolean isTrivialPass(int[] count, int n){
+        for (int c : count) {
+            if(c != 0){
+                return c == n;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * MSD的计数数组中，若所有元素都落入同一个桶，返回该桶在count中的索引，否则返回-1
+     */
+    private static int singleBucket(int[] count, int n){
+        for (int r = 0; r < count.length; r++) {
+            if(count[r] != 0){
+                return count[r] == n ? r : -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 将每个桶的元素个数转换为每个桶的起始位置
+     */
+    private static void toOffsets(int[] count){
+        int sum = 0;
+        for (int r = 0; r < count.length; r++) {
+            int c = count[r];
+            count[r] = sum;
+            sum += c;
+        }
+    }
+
+    private static int[][] addCounts(int[][] a, int[][] b){
+        for (int pass = 0; pass < a.length; pass++) {
+            for (int r = 0; r < RADIX; r++) {
+                a[pass][r] += b[pass][r];
+            }
+        }
+        return a;
+    }
+
+    private static void checkBuffer(int length, int bufferLength){
+        if(bufferLength < length){
+            throw new IllegalArgumentException("buffer is smaller than the array.");
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package sorting;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * @author: lsj
+ * @date: 2026/10/18 21:40
+ * Description: 定长二进制记录的原地排序。记录紧密排列在ByteBuffer（通常是堆外的direct buffer）的[position, limit)中，
+ * 每条记录recordSize字节，关键字为记录中[keyOffset, keyOffset + keyLength)这一段字节，按无符号字节的字典序比较。
+ * 排序直接在缓冲区内交换记录，不为每条记录创建Java对象，也不需要与数据等大的辅助空间。
+ *
+ * 1. quickSort：内省排序。三数取中、三路划分，递归过深时改用堆排序。比较关键字时按大端序每次读取8个字节，
+ *    作为无符号long比较，大端序下无符号long的大小关系与这8个字节的字典序一致；
+ * 2. radixSort：MSD基数排序的原地版本(American flag sort)，每一轮按关键字的一个字节统计桶的大小，
+ *    再沿“放错位置的记录”交换到其所属的桶，每次交换至少让一条记录就位。桶较小时改用插入排序。
+ *
+ * 用法：new RecordSort(32, 0, 16).radixSort(buffer);  //32字节的记录，前16字节为关键字
+ */
+public final class RecordSort {
+
+    /**
+     * 区间内的记录个数不超过该值时使用插入排序
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private static final int RADIX = 256;
+
+    private final int recordSize;
+    private final int keyOffset;
+    private final int keyLength;
+
+    /**
+     * @param recordSize 每条记录的字节数
+     * @param keyOffset 关键字在记录中的偏移
+     * @param keyLength 关键字的字节数
+     */
+    public RecordSort(int recordSize, int keyOffset, int keyLength){
+        if(recordSize < 1){
+            throw new IllegalArgumentException("recordSize should be positive.");
+        }
+        if(keyOffset < 0 || keyLength < 0 || keyOffset + keyLength > recordSize){
+            throw new IllegalArgumentException("key slice should be inside the record.");
+        }
+        this.recordSize = recordSize;
+        this.keyOffset = keyOffset;
+        this.keyLength = keyLength;
+    }
+
+    /**
+     * @return buffer的[position, limit)中的记录条数
+     */
+    public int count(ByteBuffer buffer){
+        if(buffer.remaining() % recordSize != 0){
+            throw new IllegalArgumentException("remaining bytes should be a multiple of recordSize.");
+        }
+        return buffer.remaining() / recordSize;
+    }
+
+    /**
+     * 使用内省排序对buffer中的记录原地排序，不稳定。buffer的position、limit和字节序都不会改变。
+     */
+    public void quickSort(ByteBuffer buffer){
+        int n = count(buffer);
+        new Pass(buffer).quickSort(0, n, 2 * (32 - Integer.numberOfLeadingZeros(n)));
+    }
+
+    /**
+     * 使用原地MSD基数排序对buffer中的记录排序，不稳定
+     */
+    public void radixSort(ByteBuffer buffer){
+        new Pass(buffer).radixSort(0, count(buffer), 0);
+    }
+
+    /**
+     * @return buffer中的记录是否已按关键字有序
+     */
+    public boolean isSorted(ByteBuffer buffer){
+        int n = count(buffer);
+        Pass pass = new Pass(buffer);
+        for (int i = 1; i < n; i++) {
+            if(pass.compare(i - 1, i, 0) > 0){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 一次排序的状态：大端序的buffer视图、记录的起始位置、轴的关键字以及基数排序各层的计数
+     */
+    private final class Pass {
+        private final ByteBuffer buf;
+        private final int base;
+        /**
+         * 轴的关键字，放在与记录相同的偏移处，使其可以和记录使用同一个比较方法
+         */
+        private final ByteBuffer pivot;
+        /**
+         * bounds[d]与next[d]为基数排序第d层的桶边界与下一个待放置位置，按需分配
+         */
+        private final int[][] bounds;
+        private final int[][] next;
+
+        Pass(ByteBuffer buffer){
+            //duplicate共享内容但有独立的字节序，不修改调用者的buffer
+            this.buf = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+            this.base = buffer.position();
+            this.pivot = ByteBuffer.allocate(recordSize);
+            this.bounds = new int[keyLength][];
+            this.next = new int[keyLength][];
+        }
+
+        private int position(int i){
+            return base + i * recordSize;
+        }
+
+        /**
+         * 从关键字的第from个字节开始比较第i条与第j条记录
+         */
+        int compare(int i, int j, int from){
+            return compareKeys(buf, position(i), buf, position(j), from);
+        }
+
+        private int compareToPivot(int i){
+            return compareKeys(buf, position(i), pivot, 0, 0);
+        }
+
+        private int compareKeys(ByteBuffer a, int pa, ByteBuffer b, int pb, int from){
+            pa += keyOffset;
+            pb += keyOffset;
+            int k = from;
+            for (; k + Long.BYTES <= keyLength; k += Long.BYTES) {
+                long x = a.getLong(pa + k), y = b.getLong(pb + k);
+                if(x != y){
+                    return Long.compareUnsigned(x, y);
+                }
+            }
+            for (; k < keyLength; k++) {
+                int x = a.get(pa + k) & 0xFF, y = b.get(pb + k) & 0xFF;
+                if(x != y){
+                    return x - y;
+                }
+            }
+            return 0;
+        }
+
+        private int byteAt(int i, int d){
+            return buf.get(position(i) + keyOffset + d) & 0xFF;
+        }
+
+        private void swap(int i, int j){
+            if(i == j){
+                return;
+            }
+            int pi = position(i), pj = position(j);
+            int k = 0;
+            for (; k + Long.BYTES <= recordSize; k += Long.BYTES) {
+                long t = buf.getLong(pi + k);
+                buf.putLong(pi + k, buf.getLong(pj + k));
+                buf.putLong(pj + k, t);
+            }
+            for (; k < recordSize; k++) {
+                byte t = buf.get(pi + k);
+                buf.put(pi + k, buf.get(pj + k));
+                buf.put(pj + k, t);
+            }
+        }
+
+        /**
+         * 对[from, to)插入排序，区间内记录的关键字前d个字节都相同
+         */
+        private void insertionSort(int from, int to, int d){
+            for (int i = from + 1; i < to; i++) {
+                for (int j = i; j > from && compare(j - 1, j, d) > 0; j--) {
+                    swap(j - 1, j);
+                }
+            }
+        }
+
+        /* ============================ quickSort ============================ */
+
+        void quickSort(int from, int to, int depthLimit){
+            while (to - from > INSERTION_SORT_THRESHOLD) {
+                if(depthLimit-- == 0){
+                    heapSort(from, to);
+                    return;
+                }
+                //三数取中，中位数换到from处作为轴
+                int mid = (from + to) >>> 1, last = to - 1;
+                if(compare(mid, from, 0) < 0){
+                    swap(mid, from);
+                }
+                if(compare(last, mid, 0) < 0){
+                    swap(last, mid);
+                    if(compare(mid, from, 0) < 0){
+                        swap(mid, from);
+                    }
+                }
+                swap(from, mid);
+                int p = position(from) + keyOffset;
+                for (int k = 0; k < keyLength; k++) {
+                    pivot.put(keyOffset + k, buf.get(p + k));
+                }
+
+                //[from, lt) < pivot, [lt, i) == pivot, (gt, to) > pivot
+                int lt = from, i = from + 1, gt = last;
+                while (i <= gt) {
+                    int cmp = compareToPivot(i);
+                    if(cmp < 0){
+                        swap(lt++, i++);
+                    }else if(cmp > 0){
+                        swap(i, gt--);
+                    }else{
+                        i++;
+                    }
+                }
+                //只递归较短的一侧
+                if(lt - from < to - gt - 1){
+                    quickSort(from, lt, depthLimit);
+                    from = gt + 1;
+                }else{
+                    quickSort(gt + 1, to, depthLimit);
+                    to = lt;
+                }
+            }
+            insertionSort(from, to, 0);
+        }
+
+        private void heapSort(int from, int to){
+            int n = to - from;
+            for (int i = (n - 2) / 2; i >= 0; i--) {
+                shiftDown(from, i, n);
+            }
+            for (int end = n - 1; end > 0; end--) {
+                swap(from, from + end);
+                shiftDown(from, 0, end);
+            }
+        }
+
+        /**
+         * 以from为堆顶的堆中，对第i个节点执行下沉操作，堆的大小为heapSize
+         */
+        private void shiftDown(int from, int i, int heapSize){
+            while (2 * i + 1 < heapSize) {
+                int child = 2 * i + 1;
+                if(child + 1 < heapSize && compare(from + child + 1, from + child, 0) > 0){
+                    child++;
+                }
+                if(compare(from + i, from + child, 0) >= 0){
+                    break;
+                }
+                swap(from + i, from + child);
+                i = child;
+            }
+        }
+
+        /* ============================ radixSort ============================ */
+
+        /**
+         * 按关键字的第d个字节对[from, to)分桶，区间内记录的关键字前d个字节都相同
+         */
+        void radixSort(int from, int to, int d){
+            if(to - from <= INSERTION_SORT_THRESHOLD){
+                insertionSort(from, to, d);
+                return;
+            }
+            int n = to - from;
+            int[] bound, nextPos;
+            while (true) {
+                if(d == keyLength){
+                    //关键字全部相同
+                    return;
+                }
+                if(bounds[d] == null){
+                    bounds[d] = new int[RADIX + 1];
+                    next[d] = new int[RADIX];
+                }
+                bound = bounds[d];
+                nextPos = next[d];
+                Arrays.fill(bound, 0);
+                for (int i = from; i < to; i++) {
+                    bound[byteAt(i, d) + 1]++;
+                }
+                int single = -1;
+                for (int r = 1; r <= RADIX; r++) {
+                    if(bound[r] == n){
+                        single = r;
+                        break;
+                    }
+                }
+                if(single < 0){
+                    break;
+                }
+                //所有记录的第d个字节都相同，直接处理下一个字节
+                d++;
+            }
+
+            //bound[r]为第r个桶的起点，bound[r + 1]为其终点
+            bound[0] = from;
+            for (int r = 0; r < RADIX; r++) {
+                bound[r + 1] += bound[r];
+                nextPos[r] = bound[r];
+            }
+            for (int r = 0; r < RADIX; r++) {
+                while (nextPos[r] < bound[r + 1]) {
+                    int b = byteAt(nextPos[r], d);
+                    if(b == r){
+                        nextPos[r]++;
+                    }else{
+                        //将该记录换到它所属的桶，换回来的记录继续在当前位置判断
+                        swap(nextPos[r], nextPos[b]++);
+                    }
+                }
+            }
+
+            for (int r = 0; r < RADIX; r++) {
+                if(bound[r + 1] - bound[r] > 1){
+                    radixSort(bound[r], bound[r + 1], d + 1);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package sorting;
+
+import sorting.DataGenerator.Distribution;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * @author: lsj
+ * @date: 2026/10/18 15:20
+ * Description: 排序算法基准测试。与Utils.testSort只计时一次冷启动的运行不同，这里对每个排序先预热再多轮测量，
+ * 输出吞吐量(ops/s)及其误差、每次排序分配的字节数、分配速率以及GC次数，并且每一轮都校验排序结果（不依赖-ea）。
+ * 测试参数包括数组规模、输入分布以及元素类型（Integer[]或int[]）。
+ *
+ * 用法：java sorting.SortBenchmark [sizes=1000,100000] [dists=RANDOM,FEW_UNIQUE] [types=boxed,int]
+ *                                 [sorts=mergeSort,introSort] [warmup=5] [iterations=10]
+ */
+public class SortBenchmark {
+
+    /**
+     * 一个待测的排序算法，boxed与primitive分别为Integer[]与int[]版本，不存在的版本为null
+     */
+    private static final class Sorter {
+        final String name;
+        final Consumer<Integer[]> boxed;
+        final Consumer<int[]> primitive;
+        /**
+         * 平方级别的算法只在不超过该规模的数组上测试
+         */
+        final int maxSize;
+        /**
+         * 不测试的输入分布
+         */
+        final EnumSet<Distribution> skipped;
+
+        Sorter(String name, Consumer<Integer[]> boxed, Consumer<int[]> primitive, int maxSize){
+            this(name, boxed, primitive, maxSize, EnumSet.noneOf(Distribution.class));
+        }
+
+        Sorter(String name, Consumer<Integer[]> boxed, Consumer<int[]> primitive, int maxSize, EnumSet<Distribution> skipped){
+            this.name = name;
+            this.boxed = boxed;
+            this.primitive = primitive;
+            this.maxSize = maxSize;
+            this.skipped = skipped;
+        }
+    }
+
+    private static final int QUADRATIC_MAX_SIZE = 20000;
+
+    /**
+     * 读取线程分配字节数本身也会分配内存，测量结果需要减去这部分开销
+     */
+    private static long allocationOverhead;
+
+    private static List<Sorter> sorters(){
+        List<Sorter> sorters = new ArrayList<>();
+        sorters.add(new Sorter("selectionSort", Utils::selectionSort, null, QUADRATIC_MAX_SIZE));
+        sorters.add(new Sorter("bubbleSort", Utils::bubbleSort, null, QUADRATIC_MAX_SIZE));
+        sorters.add(new Sorter("insertionSort", Utils::insertionSort, Utils::insertionSort, QUADRATIC_MAX_SIZE));
+        sorters.add(new Sorter("mergeSort", Utils::mergeSort, Utils::mergeSort, Integer.MAX_VALUE));
+        sorters.add(new Sorter("mergeSortBottomUp", Utils::mergeSortBottomUp, Utils::mergeSortBottomUp, Integer.MAX_VALUE));
+        sorters.add(new Sorter("bufferedMergeSort", Utils::bufferedMergeSort, Utils::bufferedMergeSort, Integer.MAX_VALUE));
+        sorters.add(new Sorter("bufferedMergeSortBottomUp", Utils::bufferedMergeSortBottomUp,
+                Utils::bufferedMergeSortBottomUp, Integer.MAX_VALUE));
+        sorters.add(new Sorter("naturalMergeSort", Utils::naturalMergeSort, null, Integer.MAX_VALUE));
+        sorters.add(new Sorter("parallelMergeSort", Utils::parallelMergeSort, null, Integer.MAX_VALUE));
+        sorters.add(new Sorter("parallelSampleSort", Utils::parallelSampleSort, Utils::parallelSampleSort, Integer.MAX_VALUE));
+        //原始的快排以第一个元素为基准，在有序、逆序以及重复元素较多的输入上递归深度为O(n)，只在较小规模上测试；
+        //有序、逆序和近乎有序的输入在QUADRATIC_MAX_SIZE规模下即会栈溢出，不测试
+        sorters.add(new Sorter("quickSort", Utils::quickSort, Utils::quickSort, QUADRATIC_MAX_SIZE,
+                EnumSet.of(Distribution.SORTED, Distribution.REVERSED, Distribution.NEARLY_ORDERED)));
+        sorters.add(new Sorter("randomizedQuickSort", Utils::randomizedQuickSort, Utils::randomizedQuickSort, QUADRATIC_MAX_SIZE));
+        sorters.add(new Sorter("introSort", Utils::introSort, null, Integer.MAX_VALUE));
+        sorters.add(new Sorter("quickSort3Ways", Utils::quickSort3Ways, null, Integer.MAX_VALUE));
+        sorters.add(new Sorter("dualPivotQuickSort", Utils::dualPivotQuickSort, null, Integer.MAX_VALUE));
+        sorters.add(new Sorter("heapSort", Utils::heapSort, Utils::heapSort, Integer.MAX_VALUE));
+        sorters.add(new Sorter("floydHeapSort", Utils::floydHeapSort, Utils::floydHeapSort, Integer.MAX_VALUE));
+        sorters.add(new Sorter("floydHeapSort4", arr -> Utils.floydHeapSort(arr, 4), arr -> Utils.floydHeapSort(arr, 4),
+                Integer.MAX_VALUE));
+        sorters.add(new Sorter("radixSort", null, RadixSort::sort, Integer.MAX_VALUE));
+        return sorters;
+    }
+
+    public static void main(String[] args) {
+        int[] sizes = {1000, 100000, 1000000};
+        List<Distribution> dists = Arrays.asList(Distribution.values());
+        List<String> types = Arrays.asList("boxed", "int");
+        List<String> names = null;
+        int warmup = 5, iterations = 10;
+
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if(eq < 0){
+                throw new IllegalArgumentException("Illegal argument: " + arg);
+            }
+            String key = arg.substring(0, eq), value = arg.substring(eq + 1);
+            switch (key){
+                case "sizes":
+                    sizes = Arrays.stream(value.split(",")).mapToInt(Integer::parseInt).toArray();
+                    break;
+                case "dists":
+                    dists = new ArrayList<>();
+                    for (String d : value.split(",")) {
+                        dists.add(Distribution.valueOf(d.toUpperCase(Locale.ROOT)));
+                    }
+                    break;
+                case "types":
+                    types = Arrays.asList(value.split(","));
+                    break;
+                case "sorts":
+                    names = Arrays.asList(value.split(","));
+                    break;
+                case "warmup":
+                    warmup = Integer.parseInt(value);
+                    break;
+                case "iterations":
+                    iterations = Integer.parseInt(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + key);
+            }
+        }
+
+        allocationOverhead = SortInstrumentation.calibrateAllocationOverhead();
+        System.out.printf("%-26s %-6s %-16s %10s %14s %10s %14s %12s %8s%n",
+                "sort", "type", "distribution", "size", "ops/s", "error(%)", "alloc(B/op)", "alloc(MB/s)", "gc");
+        for (Sorter sorter : sorters()) {
+            if(names != null && !names.contains(sorter.name)){
+                continue;
+            }
+            for (String type : types) {
+                boolean boxed = "boxed".equals(type);
+                if(!boxed && !"int".equals(type)){
+                    throw new IllegalArgumentException("Unknown type: " + type);
+                }
+                if(boxed ? sorter.boxed == null : sorter.primitive == null){
+                    continue;
+                }
+                for (Distribution dist : dists) {
+                    if(sorter.skipped.contains(dist)){
+                        continue;
+                    }
+                    for (int size : sizes) {
+                        if(size > sorter.maxSize){
+                            continue;
+                        }
+                        try {
+                            run(sorter, boxed, dist, size, warmup, iterations);
+                        } catch (StackOverflowError | RuntimeException e) {
+                            //某一组参数失败时输出一行失败结果，继续测试其余的参数和排序算法
+                            System.out.printf(Locale.ROOT, "%-26s %-6s %-16s %10d failed: %s%n",
+                                    sorter.name, boxed ? "boxed" : "int", dist, size, e);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 对某个排序算法的一组参数执行预热和测量，并输出一行结果
+     */
+    private static void run(Sorter sorter, boolean boxed, Distribution dist, int size, int warmup, int iterations){
+        //固定种子，保证每次运行的输入相同
+        int[] source = new DataGenerator(size * 31L + dist.ordinal()).intArray(dist, size);
+        Integer[] boxedSource = null;
+        if(boxed){
+            boxedSource = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                boxedSource[i] = source[i];
+            }
+        }
+
+        for (int i = 0; i < warmup; i++) {
+            measure(sorter, boxed, source, boxedSource);
+        }
+
+        double[] opsPerSecond = new double[iterations];
+        long totalNanos = 0, totalBytes = 0;
+        long gcBefore = gcCount();
+        for (int i = 0; i < iterations; i++) {
+            long[] result = measure(sorter, boxed, source, boxedSource);
+            opsPerSecond[i] = 1e9 / result[0];
+            totalNanos += result[0];
+            totalBytes += result[1];
+        }
+        long gcCount = gcCount() - gcBefore;
+
+        double mean = 0;
+        for (double ops : opsPerSecond) {
+            mean += ops;
+        }
+        mean /= iterations;
+        double variance = 0;
+        for (double ops : opsPerSecond) {
+            variance += (ops - mean) * (ops - mean);
+        }
+        //99.9%置信区间的近似半宽（正态分布），以均值的百分比表示
+        double error = iterations > 1 ? 3.29 * Math.sqrt(variance / (iterations - 1) / iterations) / mean * 100 : 0;
+
+        String bytesPerOp = totalBytes < 0 ? "n/a" : String.valueOf(totalBytes / iterations);
+        String allocRate = totalBytes < 0 ? "n/a" :
+                String.format(Locale.ROOT, "%.1f", totalBytes / (totalNanos / 1e9) / (1 << 20));
+        System.out.printf(Locale.ROOT, "%-26s %-6s %-16s %10d %14.2f %10.2f %14s %12s %8d%n",
+                sorter.name, boxed ? "boxed" : "int", dist, size, mean, error, bytesPerOp, allocRate, gcCount);
+    }
+
+    /**
+     * 复制一份输入并排序一次，返回{耗时(ns), 当前线程分配的字节数}。复制不计入耗时和分配。
+     * 对于并行排序，分配统计只包含调用线程。
+     */
+    private static long[] measure(Sorter sorter, boolean boxed, int[] source, Integer[] boxedSource){
+        long start, end, bytesBefore, bytesAfter;
+        if(boxed){
+            Integer[] arr = Arrays.copyOf(boxedSource, boxedSource.length);
+            bytesBefore = SortInstrumentation.allocatedBytes();
+            start = System.nanoTime();
+            sorter.boxed.accept(arr);
+            end = System.nanoTime();
+            bytesAfter = SortInstrumentation.allocatedBytes();
+            if(!Utils.isSorted(arr)){
+                throw new IllegalStateException(sorter.name + " produced an unsorted array.");
+            }
+        }else{
+            int[] arr = Arrays.copyOf(source, source.length);
+            bytesBefore = SortInstrumentation.allocatedBytes();
+            start = System.nanoTime();
+            sorter.primitive.accept(arr);
+            end = System.nanoTime();
+            bytesAfter = SortInstrumentation.allocatedBytes();
+            if(!Utils.isSorted(arr)){
+                throw new IllegalStateException(sorter.name + " produced an unsorted array.");
+            }
+        }
+        long bytes = bytesBefore < 0 ? -1 : Math.max(bytesAfter - bytesBefore - allocationOverhead, 0);
+        return new long[]{Math.max(end - start, 1), bytes};
+    }
+
+    private static long gcCount(){
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(gc.getCollectionCount(), 0);
+        }
+        return count;
+    }
+}
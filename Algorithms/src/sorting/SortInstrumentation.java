@@ -0,0 +1,234 @@
+package sorting;
+
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * @author: lsj
+ * @date: 2026/10/18 18:40
+ * Description: 排序的插桩统计，用于分析某次排序慢在比较、交换、递归过深还是内存分配。
+ * Utils中对象数组排序的Comparator版本在交换、元素写入、递归和划分处埋点，埋点形如
+ * if(SortInstrumentation.ENABLED){ SortInstrumentation.swap(); }
+ * ENABLED是由系统属性sorting.instrumentation决定的static final常量，为false时JIT会把整个分支当作死代码删除，
+ * 因此埋点可以留在热路径中，不开启时没有任何开销。
+ *
+ * 用法：java -Dsorting.instrumentation=true ...
+ *      SortInstrumentation.Stats stats = new SortInstrumentation.Stats();
+ *      SortInstrumentation.measure(arr, Comparator.naturalOrder(), Utils::introSort, stats);
+ * 比较次数通过包装比较器统计，分配的字节数通过ThreadMXBean统计，这两项在未开启ENABLED时同样可用；
+ * 交换、写入、递归深度和划分只在ENABLED为true时统计，并且只统计调用measure的线程（并行排序的工作线程只统计比较次数）。
+ * 基本类型数组的排序没有埋点。
+ */
+public final class SortInstrumentation {
+
+    /**
+     * 是否开启埋点，由-Dsorting.instrumentation=true开启
+     */
+    public static final boolean ENABLED = Boolean.getBoolean("sorting.instrumentation");
+
+    private SortInstrumentation(){
+    }
+
+    /**
+     * 当前线程正在统计的排序
+     */
+    private static final class Frame {
+        private final SortMetrics metrics;
+        private int depth;
+
+        Frame(SortMetrics metrics){
+            this.metrics = metrics;
+        }
+    }
+
+    private static final ThreadLocal<Frame> CURRENT = new ThreadLocal<>();
+
+    /**
+     * 使用比较器c执行一次排序，并把统计结果回调给metrics
+     * @param arr array to be sorted
+     * @param c comparator
+     * @param sort 排序算法，如Utils::introSort
+     * @param metrics 统计结果
+     * @param <T> type of elements
+     */
+    public static <T> void measure(T[] arr, Comparator<? super T> c,
+                                   BiConsumer<T[], Comparator<? super T>> sort, SortMetrics metrics){
+        Comparator<T> counting = (a, b) -> {
+            metrics.comparison();
+            return c.compare(a, b);
+        };
+        Frame previous = CURRENT.get();
+        CURRENT.set(new Frame(metrics));
+        long before = allocatedBytes();
+        try {
+            sort.accept(arr, counting);
+        } finally {
+            long after = allocatedBytes();
+            if(before >= 0 && after >= 0){
+                metrics.allocated(Math.max(after - before - ALLOCATION_OVERHEAD, 0));
+            }
+            CURRENT.set(previous);
+        }
+    }
+
+    /* 以下为Utils中的埋点，只应在ENABLED为true的分支中调用 */
+
+    static void swap(){
+        Frame f = CURRENT.get();
+        if(f != null){
+            f.metrics.swap();
+        }
+    }
+
+    static void moves(int count){
+        Frame f = CURRENT.get();
+        if(f != null){
+            f.metrics.moves(count);
+        }
+    }
+
+    static void enter(){
+        Frame f = CURRENT.get();
+        if(f != null){
+            f.metrics.recursion(++f.depth);
+        }
+    }
+
+    static void exit(){
+        Frame f = CURRENT.get();
+        if(f != null){
+            f.depth--;
+        }
+    }
+
+    static void partition(int size, int largestPart){
+        Frame f = CURRENT.get();
+        if(f != null){
+            f.metrics.partition(size, largestPart);
+        }
+    }
+
+    /**
+     * 当前线程累计分配的字节数，JVM不支持时返回-1
+     */
+    static long allocatedBytes(){
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if(bean instanceof com.sun.management.ThreadMXBean){
+            com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            if(sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled()){
+                return sunBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 连续两次调用allocatedBytes()本身分配的字节数
+     */
+    private static final long ALLOCATION_OVERHEAD = calibrateAllocationOverhead();
+
+    static long calibrateAllocationOverhead(){
+        long overhead = Long.MAX_VALUE;
+        for (int i = 0; i < 100; i++) {
+            long before = allocatedBytes();
+            long after = allocatedBytes();
+            overhead = Math.min(overhead, after - before);
+        }
+        return Math.max(overhead, 0);
+    }
+
+    /**
+     * SortMetrics的默认实现，累计所有回调。比较次数使用LongAdder，可以被并行排序的工作线程同时更新。
+     */
+    public static class Stats implements SortMetrics {
+        private final LongAdder comparisons = new LongAdder();
+        private long swaps;
+        private long moves;
+        private int maxDepth;
+        private long partitions;
+        private double imbalanceSum;
+        private double maxImbalance;
+        private long bytesAllocated;
+
+        @Override
+        public void comparison() {
+            comparisons.increment();
+        }
+
+        @Override
+        public void swap() {
+            swaps++;
+        }
+
+        @Override
+        public void moves(int count) {
+            moves += count;
+        }
+
+        @Override
+        public void recursion(int depth) {
+            maxDepth = Math.max(maxDepth, depth);
+        }
+
+        @Override
+        public void partition(int size, int largestPart) {
+            double imbalance = (double) largestPart / size;
+            partitions++;
+            imbalanceSum += imbalance;
+            maxImbalance = Math.max(maxImbalance, imbalance);
+        }
+
+        @Override
+        public void allocated(long bytes) {
+            bytesAllocated += bytes;
+        }
+
+        public long getComparisons() {
+            return comparisons.sum();
+        }
+
+        public long getSwaps() {
+            return swaps;
+        }
+
+        public long getMoves() {
+            return moves;
+        }
+
+        public int getMaxDepth() {
+            return maxDepth;
+        }
+
+        public long getPartitions() {
+            return partitions;
+        }
+
+        /**
+         * @return 划分后最大一部分占区间长度的平均比例，越接近0.5越均衡，没有划分时为0
+         */
+        public double getMeanImbalance() {
+            return partitions == 0 ? 0 : imbalanceSum / partitions;
+        }
+
+        /**
+         * @return 划分后最大一部分占区间长度的最大比例
+         */
+        public double getMaxImbalance() {
+            return maxImbalance;
+        }
+
+        public long getBytesAllocated() {
+            return bytesAllocated;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Stats{comparisons=%d, swaps=%d, moves=%d, maxDepth=%d, partitions=%d, " +
+                            "meanImbalance=%.3f, maxImbalance=%.3f, bytesAllocated=%d}",
+                    getComparisons(), swaps, moves, maxDepth, partitions,
+                    getMeanImbalance(), maxImbalance, bytesAllocated);
+        }
+    }
+}
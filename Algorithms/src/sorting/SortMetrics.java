@@ -0,0 +1,42 @@
+package sorting;
+
+/**
+ * @author: lsj
+ * @date: 2026/10/18 18:40
+ * Description: 排序过程的统计接口，由SortInstrumentation在排序过程中回调。
+ * 比较次数在并行排序的工作线程中也会回调，实现需要保证comparison()是线程安全的；其余回调只发生在调用排序的线程中。
+ */
+public interface SortMetrics {
+
+    /**
+     * 一次元素比较
+     */
+    void comparison();
+
+    /**
+     * 一次元素交换
+     */
+    void swap();
+
+    /**
+     * count次元素写入（插入排序的后移、归并时写入目标数组或辅助数组等，不含交换）
+     */
+    void moves(int count);
+
+    /**
+     * 进入一层递归，depth为进入后的递归深度（最外层为1）
+     */
+    void recursion(int depth);
+
+    /**
+     * 一次划分
+     * @param size 划分区间的长度
+     * @param largestPart 划分后最大一部分的长度（不含轴）
+     */
+    void partition(int size, int largestPart);
+
+    /**
+     * 一次排序调用中当前线程分配的字节数
+     */
+    void allocated(long bytes);
+}
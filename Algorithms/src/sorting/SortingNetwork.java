@@ -0,0 +1,172 @@
+package sorting;
+
+import java.util.Arrays;
+
+/**
+ * @author: lsj
+ * @date: 2026/10/18 19:50
+ * Description: 小数组的排序网络，作为递归排序的叶子。
+ * 排序网络是一组固定的比较-交换(compare-exchange)操作，执行顺序与数据无关。每次比较-交换写成
+ * a[i] = min(x, y), a[j] = max(x, y)，Math.min/Math.max会被JIT编译为条件传送指令，没有分支，
+ * 因此在随机数据上不会像插入排序那样频繁地分支预测失败。
+ * 长度为n的网络由Batcher的奇偶归并排序对不小于n的最小的2的幂个元素生成，只保留两端都小于n的比较器：
+ * 可以把多出来的位置看作+∞，涉及它们的比较-交换不会改变任何元素。
+ * float和double先转换为与Float.compare/Double.compare一致的有序整数再比较（-0.0小于0.0，NaN排在最后）。
+ */
+public final class SortingNetwork {
+
+    /**
+     * 排序网络支持的最大长度
+     */
+    public static final int MAX_SIZE = 32;
+
+    /**
+     * NETWORKS[n]为长度为n的排序网络，依次存放每个比较器的两个下标
+     */
+    private static final int[][] NETWORKS = new int[MAX_SIZE + 1][];
+
+    static {
+        for (int n = 0; n <= MAX_SIZE; n++) {
+            //使用不小于n的最小的2的幂生成网络，再去掉涉及多余位置的比较器
+            int[] batcher = oddEvenMergeSortNetwork(n < 2 ? 1 : Integer.highestOneBit(n - 1) << 1);
+            int count = 0;
+            for (int k = 0; k < batcher.length; k += 2) {
+                if(batcher[k + 1] < n){
+                    count++;
+                }
+            }
+            int[] network = new int[2 * count];
+            int p = 0;
+            for (int k = 0; k < batcher.length; k += 2) {
+                if(batcher[k + 1] < n){
+                    network[p++] = batcher[k];
+                    network[p++] = batcher[k + 1];
+                }
+            }
+            NETWORKS[n] = network;
+        }
+    }
+
+    private SortingNetwork(){
+    }
+
+    /**
+     * Batcher奇偶归并排序网络，n为2的幂。每个比较器(i, j)满足i < j，较小的元素放在i处。
+     */
+    private static int[] oddEvenMergeSortNetwork(int n){
+        int[] pairs = new int[n * n];
+        int size = 0;
+        for (int p = 1; p < n; p <<= 1) {
+            for (int k = p; k >= 1; k >>= 1) {
+                for (int j = k % p; j + k < n; j += 2 * k) {
+                    for (int i = 0; i < k && i + j + k < n; i++) {
+                        //只比较属于同一个待合并的2p长区间的元素
+                        if((i + j) / (2 * p) == (i + j + k) / (2 * p)){
+                            pairs[size++] = i + j;
+                            pairs[size++] = i + j + k;
+                        }
+                    }
+                }
+            }
+        }
+        return Arrays.copyOf(pairs, size);
+    }
+
+    /**
+     * @return 长度为n的排序网络的比较器个数
+     */
+    public static int comparators(int n){
+        checkSize(n);
+        return NETWORKS[n].length / 2;
+    }
+
+    /**
+     * 对arr[from, to)排序，长度不能超过MAX_SIZE
+     */
+    public static void sort(int[] arr, int from, int to){
+        int[] network = NETWORKS[checkSize(to - from)];
+        for (int k = 0; k < network.length; k += 2) {
+            int i = from + network[k], j = from + network[k + 1];
+            int x = arr[i], y = arr[j];
+            arr[i] = Math.min(x, y);
+            arr[j] = Math.max(x, y);
+        }
+    }
+
+    /**
+     * 对arr[from, to)排序，长度不能超过MAX_SIZE
+     */
+    public static void sort(long[] arr, int from, int to){
+        int[] network = NETWORKS[checkSize(to - from)];
+        for (int k = 0; k < network.length; k += 2) {
+            int i = from + network[k], j = from + network[k + 1];
+            long x = arr[i], y = arr[j];
+            arr[i] = Math.min(x, y);
+            arr[j] = Math.max(x, y);
+        }
+    }
+
+    /**
+     * 对arr[from, to)排序，长度不能超过MAX_SIZE。顺序与Float.compare一致，元素的位模式（包括NaN）保持不变。
+     */
+    public static void sort(float[] arr, int from, int to){
+        int[] network = NETWORKS[checkSize(to - from)];
+        for (int k = 0; k < network.length; k += 2) {
+            int i = from + network[k], j = from + network[k + 1];
+            int x = sortableBits(arr[i]), y = sortableBits(arr[j]);
+            arr[i] = fromSortableBits(Math.min(x, y));
+            arr[j] = fromSortableBits(Math.max(x, y));
+        }
+    }
+
+    /**
+     * 对arr[from, to)排序，长度不能超过MAX_SIZE。顺序与Double.compare一致，元素的位模式（包括NaN）保持不变。
+     */
+    public static void sort(double[] arr, int from, int to){
+        int[] network = NETWORKS[checkSize(to - from)];
+        for (int k = 0; k < network.length; k += 2) {
+            int i = from + network[k], j = from + network[k + 1];
+            long x = sortableBits(arr[i]), y = sortableBits(arr[j]);
+            arr[i] = fromSortableBits(Math.min(x, y));
+            arr[j] = fromSortableBits(Math.max(x, y));
+        }
+    }
+
+    /**
+     * 符号位为1的NaN的个数，即尾数的取值个数减1
+     */
+    private static final int FLOAT_NEGATIVE_NANS = (1 << 23) - 1;
+    private static final long DOUBLE_NEGATIVE_NANS = (1L << 52) - 1;
+
+    /**
+     * 使用原始的位模式，负数翻转除符号位以外的所有位，使有符号整数的顺序与浮点数的顺序一致。
+     * 此时符号位为1的NaN恰好是最小的FLOAT_NEGATIVE_NANS个整数，再减去FLOAT_NEGATIVE_NANS，
+     * 它们溢出后成为最大的一段，与其他NaN一起排在正无穷之后。两步都可逆，转换回去后位模式不变。
+     */
+    private static int sortableBits(float f){
+        int bits = Float.floatToRawIntBits(f);
+        return (bits ^ ((bits >> 31) & Integer.MAX_VALUE)) - FLOAT_NEGATIVE_NANS;
+    }
+
+    private static float fromSortableBits(int key){
+        int bits = key + FLOAT_NEGATIVE_NANS;
+        return Float.intBitsToFloat(bits ^ ((bits >> 31) & Integer.MAX_VALUE));
+    }
+
+    private static long sortableBits(double d){
+        long bits = Double.doubleToRawLongBits(d);
+        return (bits ^ ((bits >> 63) & Long.MAX_VALUE)) - DOUBLE_NEGATIVE_NANS;
+    }
+
+    private static double fromSortableBits(long key){
+        long bits = key + DOUBLE_NEGATIVE_NANS;
+        return Double.longBitsToDouble(bits ^ ((bits >> 63) & Long.MAX_VALUE));
+    }
+
+    private static int checkSize(int n){
+        if(n < 0 || n > MAX_SIZE){
+            throw new IllegalArgumentException("size should be in [0, " + MAX_SIZE + "].");
+        }
+        return n;
+    }
+}
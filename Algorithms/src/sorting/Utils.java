@@ -1,7 +1,21 @@
 package sorting;
 
+import java.lang.reflect.Array;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
 
 /**
  * @author: lsj
@@ -16,13 +30,417 @@ public class Utils {
      * @param <T> Type of array
      */
     public static <T extends Comparable<T>> void selectionSort(T[] arr){
+        selectionSort(arr, Comparator.<T>naturalOrder());
+    }
+
+    /**
+     * 冒泡排序：内层循环两两比较，将大的数放在后面.
+     * 每一趟内层循环找到一个最大值。
+     * @param arr array to be sorted
+     * @param <T> Type of array
+     */
+    public static <T extends Comparable<T>> void bubbleSort(T[] arr){
+        bubbleSort(arr, Comparator.<T>naturalOrder());
+    }
+
+    /**
+     * 插入排序：外层循环遍历数组（选择某张牌），内层循环将外层循环选择的牌插入到前面已经排好序的牌中。
+     * 插入排序在样本较小且基本有序时效率较高。
+     * @param arr array to be sorted
+     * @param <T> Type of array
+     */
+    public static <T extends Comparable<T>> void insertionSort(T[] arr){
+        insertionSort(arr, Comparator.<T>naturalOrder());
+    }
+
+    /**
+     * 对[leftIndex, rightIndex]区间执行插入排序，供归并、快排等算法在小区间上使用
+     * @param arr array to be sorted
+     * @param leftIndex left index
+     * @param rightIndex right index
+     * @param <T> Type of array
+     */
+    static <T extends Comparable<T>> void insertionSort(T[] arr, int leftIndex, int rightIndex){
+        insertionSort(arr, leftIndex, rightIndex, Comparator.<T>naturalOrder());
+    }
+
+    /**
+     * 自顶向下的归并排序。归并排序是稳定的，Arrays中对对象排序就是使用的归并排序。JDK中的归并排序是经过大量优化的，叫TomSort,
+     * TimSort属于归并与插入的混合排序算法。
+     * @param arr array to be sorted
+     * @param <T> Type of array
+     */
+    public static <T extends Comparable<T>> void mergeSort(T[] arr){
+        mergeSort(arr, Comparator.<T>naturalOrder());
+    }
+
+    /**
+     * 自底向上的归并排序，迭代实现。
+     * @param arr arr to be sorted
+     * @param <T> type of elements
+     */
+    public static <T extends Comparable<T>> void mergeSortBottomUp(T[] arr){
+        mergeSortBottomUp(arr, Comparator.<T>naturalOrder());
+    }
+
+    /**
+     * 区间长度不超过该值时使用插入排序
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    /**
+     * 只开辟一个辅助数组的自顶向下归并排序。与mergeSort每次合并都复制一段数组不同，这里在原数组与辅助数组之间交替读写，
+     * 每一层递归的合并结果直接写入另一个数组，无需再复制回来；区间较小时使用插入排序。
+     * @param arr array to be sorted
+     * @param <T> type of elements
+     */
+    public static <T extends Comparable<T>> void bufferedMergeSort(T[] arr){
+        bufferedMergeSort(arr, Comparator.<T>naturalOrder());
+    }
+
+    /**
+     * 使用调用者提供的辅助数组进行自顶向下归并排序，排序过程中不分配内存。同一个buffer可以在多次排序间复用。
+     * @param arr array to be sorted
+     * @param buffer 辅助数组，长度不小于arr.length
+     * @param <T> type of elements
+     */
+    public static <T extends Comparable<T>> void bufferedMergeSort(T[] arr, T[] buffer){
+        bufferedMergeSort(arr, buffer, Comparator.<T>naturalOrder());
+    }
+
+    /**
+     * 只开辟一个辅助数组的自底向上归并排序。先对每INSERTION_SORT_THRESHOLD个元素执行插入排序，
+     * 之后每一轮把相邻的两段合并到另一个数组中，原数组与辅助数组交替作为源数组。
+     * @param arr array to be sorted
+     * @param <T> type of elements
+     */
+    public static <T extends Comparable<T>> void bufferedMergeSortBottomUp(T[] arr){
+        bufferedMergeSortBottomUp(arr, Comparator.<T>naturalOrder());
+    }
+
+    /**
+     * 使用调用者提供的辅助数组进行自底向上归并排序，排序过程中不分配内存。
+     * @param arr array to be sorted
+     * @param buffer 辅助数组，长度不小于arr.length
+     * @param <T> type of elements
+     */
+    public static <T extends Comparable<T>> void bufferedMergeSortBottomUp(T[] arr, T[] buffer){
+        bufferedMergeSortBottomUp(arr, buffer, Comparator.<T>naturalOrder());
+    }
+
+    /**
+     * 自适应的自然归并排序，稳定。
+     * 1. 从左到右识别输入中已有的有序片段（顺串）：不减的片段直接使用，严格递减的片段原地反转（严格递减才能保证反转后仍然稳定），
+     *    长度不足INSERTION_SORT_THRESHOLD的顺串使用二分插入排序扩展到该长度；
+     * 2. 与bufferedMergeSortBottomUp一样在原数组与一个辅助数组之间交替读写，每一轮把相邻的两个顺串合并，顺串个数减半；
+     * 3. 合并时定期检查某一侧是否有一段元素都排在另一侧当前元素之前，有则用指数查找(galloping)找出整段并直接复制。
+     * 对于由r个有序批次拼接而成的数组，时间复杂度为O(nlog₂r)，近乎有序时接近O(n)；最坏情况为O(nlog₂n)。
+     * @param arr array to be sorted
+     * @param <T> type of elements
+     */
+    public static <T extends Comparable<T>> void naturalMergeSort(T[] arr){
+        naturalMergeSort(arr, Comparator.<T>naturalOrder());
+    }
+
+    /**
+     * 并行归并排序默认的串行阈值：区间长度不超过该值时不再拆分任务，直接使用串行的归并排序
+     */
+    public static final int PARALLEL_MERGE_SORT_THRESHOLD = 1 << 13;
+
+    /**
+     * 基于ForkJoinPool的并行归并排序，使用公共线程池ForkJoinPool.commonPool()。
+     * @param arr array to be sorted
+     * @param <T> type of elements
+     */
+    public static <T extends Comparable<T>> void parallelMergeSort(T[] arr){
+        parallelMergeSort(arr, ForkJoinPool.commonPool(), PARALLEL_MERGE_SORT_THRESHOLD);
+    }
+
+    /**
+     * 在指定线程池上执行并行归并排序。传入new ForkJoinPool(parallelism)即可控制并行度，避免占用处理请求的线程池。
+     * @param arr array to be sorted
+     * @param pool 执行排序任务的线程池
+     * @param <T> type of elements
+     */
+    public static <T extends Comparable<T>> void parallelMergeSort(T[] arr, ForkJoinPool pool){
+        parallelMergeSort(arr, pool, PARALLEL_MERGE_SORT_THRESHOLD);
+    }
+
+    /**
+     * 并行归并排序：递归地将数组一分为二并行排序，直到区间长度不超过threshold时退化为串行的插入/归并排序；
+     * 合并阶段同样是并行的，即在较长的一半中取中点，在另一半中二分查找切分点，将一次合并拆成两个独立的子合并。
+     * 与merge一样，相等元素总是左半部分在前，因此排序是稳定的。整个排序只额外开辟一个辅助数组。
+     * @param arr array to be sorted
+     * @param pool 执行排序任务的线程池
+     * @param threshold 串行阈值，至少为2
+     * @param <T> type of elements
+     */
+    public static <T extends Comparable<T>> void parallelMergeSort(T[] arr, ForkJoinPool pool, int threshold){
+        parallelMergeSort(arr, pool, threshold, Comparator.<T>naturalOrder());
+    }
+
+    /**
+     * 数组长度不超过该值时，parallelSampleSort直接使用串行的归并排序
+     */
+    public static final int PARALLEL_SAMPLE_SORT_THRESHOLD = 1 << 16;
+
+    /**
+     * 每个桶抽取的样本数
+     */
+    private static final int SAMPLE_SORT_OVERSAMPLING = 16;
+
+    /**
+     * 桶号使用一个字节存放，桶数不超过256
+     */
+    private static final int SAMPLE_SORT_MAX_BUCKETS = 256;
+
+    /**
+     * 每个桶平均至少包含的元素个数
+     */
+    private static final int SAMPLE_SORT_MIN_BUCKET_SIZE = 1 << 12;
+
+    /**
+     * 基于ForkJoinPool的并行样本排序，使用公共线程池ForkJoinPool.commonPool()。
+     * 与parallelMergeSort相比，最后不需要逐层合并，每个桶划分好后各自独立排序，适合非常大的数组。
+     * @param arr array to be sorted
+     * @param <T> type of elements
+     */
+    public static <T extends Comparable<T>> void parallelSampleSort(T[] arr){
+        parallelSampleSort(arr, ForkJoinPool.commonPool(), Comparator.<T>naturalOrder());
+    }
+
+    /**
+     * 在指定线程池上执行并行样本排序。
+     * @param arr array to be sorted
+     * @param pool 执行排序任务的线程池
+     * @param <T> type of elements
+     */
+    public static <T extends Comparable<T>> void parallelSampleSort(T[] arr, ForkJoinPool pool){
+        parallelSampleSort(arr, pool, Comparator.<T>naturalOrder());
+    }
+
+    /**
+     * 桶数取并行度的4倍向上取到2的幂，便于工作窃取平衡各桶的排序；每个桶平均不少于SAMPLE_SORT_MIN_BUCKET_SIZE个元素。
+     * @return 返回值小于2时应串行排序
+     */
+    private static int sampleSortBuckets(int n, int parallelism){
+        if(n <= PARALLEL_SAMPLE_SORT_THRESHOLD || parallelism == 1){
+            return 1;
+        }
+        int buckets = Integer.highestOneBit(4 * parallelism - 1) << 1;
+        buckets = Math.min(buckets, SAMPLE_SORT_MAX_BUCKETS);
+        while(buckets > 1 && n / buckets < SAMPLE_SORT_MIN_BUCKET_SIZE){
+            buckets >>= 1;
+        }
+        return buckets;
+    }
+
+    /**
+     * 分类与分发阶段的分块数
+     */
+    private static int sampleSortBlocks(int n, int parallelism){
+        return Math.max(1, Math.min(4 * parallelism, n / SAMPLE_SORT_MIN_BUCKET_SIZE));
+    }
+
+    /**
+     * 分割树中节点j（层序，从1开始）对应的分割元素在buckets-1个分割元素中的序号（从1开始）。
+     * 节点j位于第log2(j)层，是该层的第j - 2^level个节点，对应的分割元素序号为(2·(j - 2^level) + 1)·2^(logBuckets-level-1)
+     */
+    private static int splitterRank(int j, int logBuckets){
+        int level = log2(j);
+        return (2 * (j - (1 << level)) + 1) << (logBuckets - level - 1);
+    }
+
+    /**
+     * 将每块每桶的计数counts[block][bucket]原地转换为该块在该桶中的起始写入位置。
+     * 同一个桶中，块号小的元素在前。
+     * @return 每个桶的起始位置，长度为buckets+1，最后一个元素为n
+     */
+    private static int[] sampleSortOffsets(int[][] counts, int buckets){
+        int[] bucketStart = new int[buckets + 1];
+        int sum = 0;
+        for (int k = 0; k < buckets; k++) {
+            bucketStart[k] = sum;
+            for (int[] count : counts) {
+                int t = count[k];
+                count[k] = sum;
+                sum += t;
+            }
+        }
+        bucketStart[buckets] = sum;
+        return bucketStart;
+    }
+
+    /**
+     * 对[from, to)中的每个下标并行地执行body，区间不断二分直到只剩一个下标
+     */
+    private static final class ParallelForTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from, to;
+        private final IntConsumer body;
+
+        ParallelForTask(int from, int to, IntConsumer body){
+            this.from = from;
+            this.to = to;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from == 1){
+                body.accept(from);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ParallelForTask(from, mid, body), new ParallelForTask(mid, to, body));
+        }
+    }
+
+    /**
+     * 单轴快排。数组近乎有序时，退化为时间复杂度为n平方的算法
+     * @param arr arr to be sorted
+     * @param <T> type of elements
+     */
+    public static <T extends Comparable<T>> void quickSort(T[] arr){
+        quickSort(arr, Comparator.<T>naturalOrder());
+    }
+
+    public static <T extends Comparable<T>> void randomizedQuickSort(T[] arr){
+        randomizedQuickSort(arr, Comparator.<T>naturalOrder());
+    }
+
+    /**
+     * 内省排序(IntroSort)：生产环境使用的快速排序。
+     * 1. 使用三数取中（区间较大时使用Tukey的ninther，即九数取中）选择轴，近乎有序的数组不会再退化；
+     * 2. 每次只递归处理较短的一侧，较长的一侧在循环中继续处理，递归深度不超过log₂n；
+     * 3. 递归深度超过2·log₂n时，剩余区间改用堆排序，最坏时间复杂度为nlog₂n；
+     * 4. 区间长度较小时使用插入排序。
+     * 因此无需调整-Xss，也不依赖knuthShuffle。
+     * @param arr array to be sorted
+     * @param <T> type of elements
+     */
+    public static <T extends Comparable<T>> void introSort(T[] arr){
+        introSort(arr, false, Comparator.<T>naturalOrder());
+    }
+
+    /**
+     * 内省排序，可选地先使用Knuth洗牌算法打乱数组
+     * @param arr array to be sorted
+     * @param shuffle 是否先打乱数组
+     * @param <T> type of elements
+     */
+    public static <T extends Comparable<T>> void introSort(T[] arr, boolean shuffle){
+        introSort(arr, shuffle, Comparator.<T>naturalOrder());
+    }
+
+    /**
+     * 区间长度超过该值时，使用ninther代替三数取中
+     */
+    private static final int NINTHER_THRESHOLD = 40;
+
+    /**
+     * 计算log₂n向下取整
+     */
+    private static int log2(int n){
+        return 31 - Integer.numberOfLeadingZeros(n);
+    }
+
+    /**
+     * 三路快排(Dijkstra)：将区间划分为小于、等于、大于轴三部分，等于轴的部分不再参与递归。
+     * 适合含有大量重复元素的数组，所有元素都相等的区间只需一次线性扫描。
+     * @param arr array to be sorted
+     * @param <T> type of elements
+     */
+    public static <T extends Comparable<T>> void quickSort3Ways(T[] arr){
+        quickSort3Ways(arr, Comparator.<T>naturalOrder());
+    }
+
+    /**
+     * 双轴快排(Yaroslavskiy)：选取两个轴p <= q，将区间划分为小于p、[p, q]之间、大于q三部分。
+     * 当p == q时中间部分全部等于轴，无需再递归，因此所有元素都相等的区间同样只需一次线性扫描。
+     * @param arr array to be sorted
+     * @param <T> type of elements
+     */
+    public static <T extends Comparable<T>> void dualPivotQuickSort(T[] arr){
+        dualPivotQuickSort(arr, Comparator.<T>naturalOrder());
+    }
+
+    /**
+     * Knuth洗牌算法，用于随机化数组元素，优化快速排序。
+     * 该算法保证了每一个元素出现在每一个位置的概率相等。
+     * @param arr array to be randomized
+     * @param <T> type of elements
+     */
+    private static <T> void knuthShuffle(T[] arr){
+        for(int i = arr.length-1; i >= 0; i--){
+            //arr[i]与0-i之间的随机一个数交换
+            swap(arr, i, (int)(Math.random()*(i+1)));
+        }
+    }
+
+    /**
+     * 堆排序。
+     * @param arr array to be sorted
+     * @param <T> type of elements
+     */
+    public static <T extends Comparable<T>> void heapSort(T[] arr){
+        heapSort(arr, Comparator.<T>naturalOrder());
+    }
+
+    /**
+     * Floyd堆排序：对heapSort的两点优化。
+     * 1. 下沉时不交换，而是移动“空位”(hole)：取出待下沉的元素后，孩子直接上移填入空位，最后再把元素放入最终位置，
+     *    每层只写一次数组，而不是swap的三次；
+     * 2. 自底向上(bottom-up)下沉：堆顶换下来的元素通常很小，最终会沉到接近叶子的位置。因此先不与它比较，
+     *    每层只比较孩子，沿较大的孩子把空位一直移到叶子，再从叶子往上为该元素找位置，后者通常只需一两次比较。
+     *    二叉堆每层的比较次数由两次降为一次。
+     * 可选d叉堆(arity为4时，节点i的孩子为4i+1...4i+4)：树高减半，4个孩子在数组中相邻，通常位于同一条缓存行，
+     * 数组远大于缓存时每层的缓存未命中更少。
+     * @param arr array to be sorted
+     * @param <T> type of elements
+     */
+    public static <T extends Comparable<T>> void floydHeapSort(T[] arr){
+        floydHeapSort(arr, 2, Comparator.<T>naturalOrder());
+    }
+
+    /**
+     * 使用arity叉堆的Floyd堆排序
+     * @param arr array to be sorted
+     * @param arity 堆的叉数，常用2或4
+     * @param <T> type of elements
+     */
+    public static <T extends Comparable<T>> void floydHeapSort(T[] arr, int arity){
+        floydHeapSort(arr, arity, Comparator.<T>naturalOrder());
+    }
+
+    private static <T> void swap(T[] arr, int i, int j) {
+        if(SortInstrumentation.ENABLED){
+            SortInstrumentation.swap();
+        }
+        T temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+
+    /* ============================ Comparator版本 ============================ */
+    // 以下为接受Comparator<? super T>的重载版本，比较器作为最后一个参数。各算法只在这里实现一份，
+    // 前面的Comparable版本都以Comparator.naturalOrder()委托给对应的方法，SortInstrumentation的统计同样只在这里。
+
+    /**
+     * 使用比较器c的选择排序。
+     * @param arr array to be sorted
+     * @param c comparator
+     * @param <T> type of elements
+     */
+    public static <T> void selectionSort(T[] arr, Comparator<? super T> c){
         for (int i = 0; i < arr.length; i++) {
             //记录每一趟的最小值索引
             int minIndex = i;
 
             //找到每一趟的最小值的索引
             for (int j = i + 1; j < arr.length; j++) {
-                minIndex = arr[minIndex].compareTo(arr[j]) > 0 ? j : minIndex;
+                minIndex = c.compare(arr[minIndex], arr[j]) > 0 ? j : minIndex;
             }
 
             swap(arr, minIndex, i);
@@ -31,98 +449,2239 @@ public class Utils {
     }
 
     /**
-     * 冒泡排序：内层循环两两比较，将大的数放在后面.
-     * 每一趟内层循环找到一个最大值。
+     * 使用比较器c的冒泡排序。
+     * @param arr array to be sorted
+     * @param c comparator
+     * @param <T> type of elements
+     */
+    public static <T> void bubbleSort(T[] arr, Comparator<? super T> c){
+        for(int i = arr.length - 1; i > 0; i--){
+            for(int j = 0; j < i; j++){
+                if(c.compare(arr[j], arr[j+1]) > 0){
+                    swap(arr, j , j+1);
+                }
+            }
+        }
+    }
+
+    /**
+     * 使用比较器c的插入排序。
+     * @param arr array to be sorted
+     * @param c comparator
+     * @param <T> type of elements
+     */
+    public static <T> void insertionSort(T[] arr, Comparator<? super T> c){
+        insertionSort(arr, 0, arr.length - 1, c);
+    }
+
+    /**
+     * 对[leftIndex, rightIndex]区间执行插入排序，供归并、快排等算法在小区间上使用
+     * @param arr array to be sorted
+     * @param leftIndex left index
+     * @param rightIndex right index
+     * @param c comparator
+     * @param <T> Type of array
+     */
+    private static <T> void insertionSort(T[] arr, int leftIndex, int rightIndex, Comparator<? super T> c){
+        for (int i = leftIndex + 1; i <= rightIndex; i++) {
+            //寻找arr[i]在其之前的插入位置
+            T e = arr[i];
+            //j保存e应该插入的位置
+            int j;
+            for (j = i; j > leftIndex && c.compare(arr[j-1], e) > 0; j--) {
+                //向后移动一个元素
+                arr[j] = arr[j-1];
+            }
+            arr[j] = e;
+            if(SortInstrumentation.ENABLED){
+                SortInstrumentation.moves(i - j + 1);
+            }
+//            for (int j = i; j > 0 ; j--) {
+//                //向前两两比较并交换
+//                if(c.compare(arr[j], arr[j-1]) < 0){
+//                    swap(arr, j, j-1);
+//                }else{
+//                    break;
+//                }
+//            }
+        }
+    }
+
+    /**
+     * 使用比较器c的自顶向下的归并排序。
+     * @param arr array to be sorted
+     * @param c comparator
+     * @param <T> type of elements
+     */
+    public static <T> void mergeSort(T[] arr, Comparator<? super T> c){
+        mergeSort(arr, 0, arr.length-1, c);
+    }
+
+    /**
+     * 递归方法，归并排序
+     * @param arr array to be sorted
+     * @param leftIndex left index
+     * @param rightIndex right index
+     * @param c comparator
+     * @param <T> Type of array
+     */
+    private static <T> void mergeSort(T[] arr, int leftIndex, int rightIndex, Comparator<? super T> c){
+        if(leftIndex >= rightIndex){
+            return;
+        }
+        if(SortInstrumentation.ENABLED){
+            SortInstrumentation.enter();
+        }
+        try {
+            //计算左边界与右边界的中点，注意不能使用(leftIndex+rightIndex)/2，以防止整型溢出
+            int midIndex = leftIndex + (rightIndex - leftIndex)/2;
+
+            //对数组左半部分排序
+            mergeSort(arr, leftIndex, midIndex, c);
+            //对数组右半部分排序
+            mergeSort(arr, midIndex+1, rightIndex, c);
+
+            //合并已经有序的左右两半部分数组
+            if(c.compare(arr[midIndex], arr[midIndex+1]) > 0) {
+                merge(arr, leftIndex, midIndex + 1, rightIndex, c);
+            }
+        } finally {
+            if(SortInstrumentation.ENABLED){
+                SortInstrumentation.exit();
+            }
+        }
+    }
+
+    /**
+     * 额外开辟一个数组，借助该数组合并两半部分有序的数组
+     * @param arr array to be merged
+     * @param leftIndex left index
+     * @param midIndex middle index
+     * @param rightIndex right index
+     * @param c comparator
+     */
+    private static <T> void merge(T[] arr, int leftIndex, int midIndex, int rightIndex, Comparator<? super T> c){
+        if(SortInstrumentation.ENABLED){
+            SortInstrumentation.moves(2 * (rightIndex - leftIndex + 1));
+        }
+        //只复制[leftIndex, rightIndex]的值，注意copyOfRange的to参数是开区间，因此此处需要+1
+        T[] temp = Arrays.copyOfRange(arr, leftIndex, rightIndex+1);
+
+        int i = leftIndex, j = midIndex, k = leftIndex;
+        while(i < midIndex && j <= rightIndex){
+            if(c.compare(temp[i-leftIndex], temp[j-leftIndex]) <= 0){
+                arr[k++] = temp[i-leftIndex];
+                i++;
+            }else{
+                arr[k++] = temp[j-leftIndex];
+                j++;
+            }
+        }
+
+        //以下两个循环只可能执行其中某一个
+        while(i < midIndex){
+            arr[k++] = temp[i-leftIndex];
+            i++;
+        }
+        while(j <= rightIndex){
+            arr[k++] = temp[j-leftIndex];
+            j++;
+        }
+
+    }
+
+    /**
+     * 使用比较器c的自底向上的归并排序。
+     * @param arr arr to be sorted
+     * @param c comparator
+     * @param <T> type of elements
+     */
+    public static <T> void mergeSortBottomUp(T[] arr, Comparator<? super T> c){
+        for (int size = 1; size < arr.length ; size *= 2) {
+            for (int i = 0; i + size < arr.length; i += 2*size) {
+                if(c.compare(arr[i+size-1], arr[i+size]) > 0){
+                    merge(arr, i, i + size, Math.min(i + 2 * size - 1, arr.length - 1), c);
+                }
+            }
+        }
+    }
+
+    /**
+     * 使用比较器c的bufferedMergeSort，只开辟一个辅助数组。
+     * @param arr array to be sorted
+     * @param c comparator
+     * @param <T> type of elements
+     */
+    public static <T> void bufferedMergeSort(T[] arr, Comparator<? super T> c){
+        bufferedMergeSort(arr, Arrays.copyOf(arr, arr.length), c);
+    }
+
+    /**
+     * 使用比较器c并使用调用者提供的辅助数组进行自顶向下归并排序，排序过程中不分配内存。
+     * @param arr array to be sorted
+     * @param buffer 辅助数组，长度不小于arr.length
+     * @param c comparator
+     * @param <T> type of elements
+     */
+    public static <T> void bufferedMergeSort(T[] arr, T[] buffer, Comparator<? super T> c){
+        if(buffer.length < arr.length){
+            throw new IllegalArgumentException("buffer is smaller than the array.");
+        }
+        //两个数组的内容相同，递归过程中轮流作为源数组与目标数组
+        System.arraycopy(arr, 0, buffer, 0, arr.length);
+        bufferedMergeSort(buffer, arr, 0, arr.length - 1, c);
+    }
+
+    /**
+     * 将[leftIndex, rightIndex]排序后写入dest。调用前src与dest在该区间的内容相同。
+     * @param src 源数组
+     * @param dest 目标数组
+     * @param leftIndex left index
+     * @param rightIndex right index
+     * @param c comparator
+     * @param <T> type of elements
+     */
+    private static <T> void bufferedMergeSort(T[] src, T[] dest, int leftIndex, int rightIndex, Comparator<? super T> c){
+        if(SortInstrumentation.ENABLED){
+            SortInstrumentation.enter();
+        }
+        try {
+            if(rightIndex - leftIndex + 1 <= INSERTION_SORT_THRESHOLD){
+                insertionSort(dest, leftIndex, rightIndex, c);
+                return;
+            }
+            int midIndex = leftIndex + (rightIndex - leftIndex)/2;
+
+            //交换src与dest的角色，左右两半排序后的结果写入src
+            bufferedMergeSort(dest, src, leftIndex, midIndex, c);
+            bufferedMergeSort(dest, src, midIndex+1, rightIndex, c);
+
+            if(c.compare(src[midIndex], src[midIndex+1]) <= 0){
+                System.arraycopy(src, leftIndex, dest, leftIndex, rightIndex - leftIndex + 1);
+                if(SortInstrumentation.ENABLED){
+                    SortInstrumentation.moves(rightIndex - leftIndex + 1);
+                }
+                return;
+            }
+            merge(src, dest, leftIndex, midIndex + 1, rightIndex, c);
+        } finally {
+            if(SortInstrumentation.ENABLED){
+                SortInstrumentation.exit();
+            }
+        }
+    }
+
+    /**
+     * 合并src[leftIndex, midIndex)与src[midIndex, rightIndex]两段有序区间，结果写入dest的相同位置
+     */
+    private static <T> void merge(T[] src, T[] dest, int leftIndex, int midIndex, int rightIndex, Comparator<? super T> c){
+        if(SortInstrumentation.ENABLED){
+            SortInstrumentation.moves(rightIndex - leftIndex + 1);
+        }
+        int i = leftIndex, j = midIndex, k = leftIndex;
+        while(i < midIndex && j <= rightIndex){
+            if(c.compare(src[i], src[j]) <= 0){
+                dest[k++] = src[i++];
+            }else{
+                dest[k++] = src[j++];
+            }
+        }
+        //以下两个复制只可能执行其中某一个
+        System.arraycopy(src, i, dest, k, midIndex - i);
+        System.arraycopy(src, j, dest, k, rightIndex + 1 - j);
+    }
+
+    /**
+     * 使用比较器c的bufferedMergeSortBottomUp，只开辟一个辅助数组。
+     * @param arr array to be sorted
+     * @param c comparator
+     * @param <T> type of elements
+     */
+    public static <T> void bufferedMergeSortBottomUp(T[] arr, Comparator<? super T> c){
+        bufferedMergeSortBottomUp(arr, Arrays.copyOf(arr, arr.length), c);
+    }
+
+    /**
+     * 使用比较器c并使用调用者提供的辅助数组进行自底向上归并排序，排序过程中不分配内存。
+     * @param arr array to be sorted
+     * @param buffer 辅助数组，长度不小于arr.length
+     * @param c comparator
+     * @param <T> type of elements
+     */
+    public static <T> void bufferedMergeSortBottomUp(T[] arr, T[] buffer, Comparator<? super T> c){
+        if(buffer.length < arr.length){
+            throw new IllegalArgumentException("buffer is smaller than the array.");
+        }
+        int n = arr.length;
+        for (int i = 0; i < n; i += INSERTION_SORT_THRESHOLD) {
+            insertionSort(arr, i, Math.min(i + INSERTION_SORT_THRESHOLD, n) - 1, c);
+        }
+
+        T[] src = arr, dest = buffer;
+        for (int size = INSERTION_SORT_THRESHOLD; size < n; size *= 2) {
+            for (int i = 0; i < n; i += 2*size) {
+                int mid = Math.min(i + size, n), right = Math.min(i + 2 * size, n) - 1;
+                //落单的最后一段或者两段已经整体有序，直接复制
+                if(mid > right || c.compare(src[mid-1], src[mid]) <= 0){
+                    System.arraycopy(src, i, dest, i, right - i + 1);
+                    if(SortInstrumentation.ENABLED){
+                        SortInstrumentation.moves(right - i + 1);
+                    }
+                }else{
+                    merge(src, dest, i, mid, right, c);
+                }
+            }
+            T[] temp = src;
+            src = dest;
+            dest = temp;
+        }
+        //最后一轮的结果在辅助数组中时，需要复制回原数组
+        if(src != arr){
+            System.arraycopy(src, 0, arr, 0, n);
+        }
+    }
+
+    /**
+     * 使用比较器c的自然归并排序，稳定。
+     * @param arr array to be sorted
+     * @param c comparator
+     * @param <T> type of elements
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> void naturalMergeSort(T[] arr, Comparator<? super T> c){
+        int n = arr.length;
+        if(n < 2){
+            return;
+        }
+        //runs[i]为第i个顺串的起始位置，runs[count]为n。除最后一个外每个顺串的长度都不小于INSERTION_SORT_THRESHOLD
+        int[] runs = new int[n / INSERTION_SORT_THRESHOLD + 2];
+        int count = 0;
+        for (int i = 0; i < n; ) {
+            int end = findRun(arr, i, n, c);
+            if(end - i < INSERTION_SORT_THRESHOLD){
+                int extended = Math.min(i + INSERTION_SORT_THRESHOLD, n);
+                binaryInsertionSort(arr, i, end, extended, c);
+                end = extended;
+            }
+            runs[count++] = i;
+            i = end;
+        }
+        runs[count] = n;
+        if(count == 1){
+            return;
+        }
+
+        //辅助数组的内容会被完全覆盖，不需要复制原数组
+        T[] src = arr, dest = (T[]) Array.newInstance(arr.getClass().getComponentType(), n);
+        while(count > 1){
+            int merged = 0;
+            for (int k = 0; k < count; k += 2) {
+                int left = runs[k], mid = runs[k + 1];
+                if(k + 1 == count){
+                    //落单的最后一个顺串直接复制
+                    System.arraycopy(src, left, dest, left, mid - left);
+                }else{
+                    gallopingMerge(src, dest, left, mid, runs[k + 2] - 1, c);
+                }
+                runs[merged++] = left;
+            }
+            count = merged;
+            runs[count] = n;
+            T[] temp = src;
+            src = dest;
+            dest = temp;
+        }
+        if(src != arr){
+            System.arraycopy(src, 0, arr, 0, n);
+        }
+    }
+
+    /**
+     * 找出从from开始的顺串。严格递减的顺串会被原地反转。
+     * @return 顺串的结束位置（开区间）
+     */
+    private static <T> int findRun(T[] arr, int from, int n, Comparator<? super T> c){
+        int end = from + 1;
+        if(end == n){
+            return end;
+        }
+        if(c.compare(arr[end], arr[from]) < 0){
+            while(end + 1 < n && c.compare(arr[end + 1], arr[end]) < 0){
+                end++;
+            }
+            end++;
+            for (int i = from, j = end - 1; i < j; i++, j--) {
+                swap(arr, i, j);
+            }
+        }else{
+            while(end + 1 < n && c.compare(arr[end + 1], arr[end]) >= 0){
+                end++;
+            }
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * arr[from, sortedEnd)已经有序，将arr[sortedEnd, to)中的元素依次插入。插入位置通过二分查找确定，
+     * 取第一个大于该元素的位置，因此相等元素保持原来的顺序。
+     */
+    private static <T> void binaryInsertionSort(T[] arr, int from, int sortedEnd, int to, Comparator<? super T> c){
+        for (int i = sortedEnd; i < to; i++) {
+            T e = arr[i];
+            int pos = upperBound(arr, from, i, e, c);
+            //区间很短，逐个后移比System.arraycopy的调用开销更小
+            for (int j = i; j > pos; j--) {
+                arr[j] = arr[j - 1];
+            }
+            arr[pos] = e;
+            if(SortInstrumentation.ENABLED){
+                SortInstrumentation.moves(i - pos + 1);
+            }
+        }
+    }
+
+    /**
+     * 合并时每逐个合并该数量的元素，检查一次是否可以整段复制；能够整段复制的片段至少有这么长
+     */
+    private static final int GALLOP_THRESHOLD = 32;
+
+    /**
+     * 合并src[leftIndex, midIndex)与src[midIndex, rightIndex]两段有序区间，结果写入dest的相同位置。
+     * 与merge相同，相等元素总是左边的在前。每逐个合并GALLOP_THRESHOLD个元素，检查某一侧接下来的GALLOP_THRESHOLD个元素
+     * 是否都排在另一侧当前元素之前，是则说明输入中存在较长的有序片段，用指数查找一次找出该侧所有这样的元素，整段复制，
+     * 比较次数为该段长度的对数。随机输入中这样的检查几乎总是失败，只多出约1/GALLOP_THRESHOLD的比较次数；
+     * 若像TimSort那样统计每一侧连续胜出的次数，合并循环每一步都要多做计数和判断，随机输入下明显变慢。
+     */
+    private static <T> void gallopingMerge(T[] src, T[] dest, int leftIndex, int midIndex, int rightIndex, Comparator<? super T> c){
+        if(SortInstrumentation.ENABLED){
+            SortInstrumentation.moves(rightIndex - leftIndex + 1);
+        }
+        //两段已经整体有序，直接复制
+        if(c.compare(src[midIndex - 1], src[midIndex]) <= 0){
+            System.arraycopy(src, leftIndex, dest, leftIndex, rightIndex - leftIndex + 1);
+            return;
+        }
+        int i = leftIndex, j = midIndex, k = leftIndex;
+        while(i < midIndex && j <= rightIndex){
+            for (int t = 0; t < GALLOP_THRESHOLD && i < midIndex && j <= rightIndex; t++) {
+                dest[k++] = c.compare(src[i], src[j]) <= 0 ? src[i++] : src[j++];
+            }
+            if(i + GALLOP_THRESHOLD <= midIndex && j <= rightIndex && c.compare(src[i + GALLOP_THRESHOLD - 1], src[j]) <= 0){
+                //左边所有不大于src[j]的元素都排在src[j]之前
+                int end = gallop(src, i + GALLOP_THRESHOLD, midIndex, src[j], true, c);
+                System.arraycopy(src, i, dest, k, end - i);
+                k += end - i;
+                i = end;
+            }else if(j + GALLOP_THRESHOLD <= rightIndex + 1 && i < midIndex && c.compare(src[j + GALLOP_THRESHOLD - 1], src[i]) < 0){
+                //右边所有小于src[i]的元素都排在src[i]之前，与src[i]相等的元素仍在其后，保证稳定
+                int end = gallop(src, j + GALLOP_THRESHOLD, rightIndex + 1, src[i], false, c);
+                System.arraycopy(src, j, dest, k, end - j);
+                k += end - j;
+                j = end;
+            }
+        }
+        //以下两个复制只可能执行其中某一个
+        System.arraycopy(src, i, dest, k, midIndex - i);
+        System.arraycopy(src, j, dest, k, rightIndex + 1 - j);
+    }
+
+    /**
+     * 在有序区间arr[from, to)中从from开始指数查找：依次检查from, from+1, from+3, from+7...，
+     * 找到第一个越过key的位置后，再在最后一段中二分查找。要找的位置距离from为d时，只需O(log d)次比较。
+     * @param inclusive 为true时返回第一个大于key的位置（同upperBound），否则返回第一个大于等于key的位置（同lowerBound）
+     */
+    private static <T> int gallop(T[] arr, int from, int to, T key, boolean inclusive, Comparator<? super T> c){
+        int lo = from, hi = from;
+        long step = 1;
+        //arr[from, lo)中的元素都应排在key之前
+        while(hi < to){
+            int cmp = c.compare(arr[hi], key);
+            if(inclusive ? cmp > 0 : cmp >= 0){
+                break;
+            }
+            lo = hi + 1;
+            step <<= 1;
+            hi = (int) Math.min(from + step - 1, to);
+        }
+        return inclusive ? upperBound(arr, lo, hi, key, c) : lowerBound(arr, lo, hi, key, c);
+    }
+
+    /**
+     * 使用比较器c的单轴快排。
+     * @param arr arr to be sorted
+     * @param c comparator
+     * @param <T> type of elements
+     */
+    public static <T> void quickSort(T[] arr, Comparator<? super T> c){
+        quickSort(arr, 0, arr.length - 1, c);
+    }
+
+    public static <T> void randomizedQuickSort(T[] arr, Comparator<? super T> c){
+        //使用Knuth算法打乱数组，优化快速排序
+        knuthShuffle(arr);
+        quickSort(arr, 0, arr.length - 1, c);
+    }
+
+    private static <T> void quickSort(T[] arr, int leftIndex, int rightIndex, Comparator<? super T> c){
+        if(leftIndex >= rightIndex){
+            return;
+        }
+        if(SortInstrumentation.ENABLED){
+            SortInstrumentation.enter();
+        }
+        try {
+            //轴左边的元素小于它，右边的元素大于它
+            int pivotIndex = partition(arr, leftIndex, rightIndex, c);
+            if(SortInstrumentation.ENABLED){
+                SortInstrumentation.partition(rightIndex - leftIndex + 1, Math.max(pivotIndex - leftIndex, rightIndex - pivotIndex));
+            }
+            quickSort(arr, leftIndex, pivotIndex - 1, c);
+            quickSort(arr, pivotIndex + 1, rightIndex, c);
+        } finally {
+            if(SortInstrumentation.ENABLED){
+                SortInstrumentation.exit();
+            }
+        }
+    }
+
+    /**
+     * let arr[leftIndex...pivotIndex-1] < arr[pivotIndex], arr[pivotIndex+1...rightIndex] > arr[pivotIndex]
+     * @param arr array to be sorted
+     * @param leftIndex left boundary index
+     * @param rightIndex right boundary index
+     * @param c comparator
+     * @param <T> type of elements
+     * @return pivot index
+     */
+    private static <T> int partition(T[] arr, int leftIndex, int rightIndex, Comparator<? super T> c){
+        //选定第一个元素作为轴
+        T pivot = arr[leftIndex];
+
+        //由于pivot选定为左边界，因此这里的l需要+1
+        int l = leftIndex + 1, r = rightIndex;
+        //将比pivot小的元素和比pivot大的元素划分为两部分
+        while(l <= r){
+            //从左往右找到第一个比pivot大的元素的索引
+            while(l <= r && c.compare(arr[l], pivot) <= 0){
+                l++;
+            }
+            //从右往左找到第一个比pivot小的元素的索引
+            while(l <= r && c.compare(arr[r], pivot) >= 0){
+                r--;
+            }
+
+            if(l <= r){
+                swap(arr, l, r);
+            }
+        }
+        //pivot换到中间，完成一次partition
+        swap(arr, leftIndex, r);
+
+        return r;
+    }
+
+    /**
+     * 使用比较器c的内省排序。
+     * @param arr array to be sorted
+     * @param c comparator
+     * @param <T> type of elements
+     */
+    public static <T> void introSort(T[] arr, Comparator<? super T> c){
+        introSort(arr, false, c);
+    }
+
+    /**
+     * 使用比较器c的内省排序，可选地先使用Knuth洗牌算法打乱数组。
+     * @param arr array to be sorted
+     * @param shuffle 是否先打乱数组
+     * @param c comparator
+     * @param <T> type of elements
+     */
+    public static <T> void introSort(T[] arr, boolean shuffle, Comparator<? super T> c){
+        if(shuffle){
+            knuthShuffle(arr);
+        }
+        if(arr.length < 2){
+            return;
+        }
+        introSort(arr, 0, arr.length - 1, 2 * log2(arr.length), c);
+    }
+
+    private static <T> void introSort(T[] arr, int leftIndex, int rightIndex, int depthLimit, Comparator<? super T> c){
+        if(SortInstrumentation.ENABLED){
+            SortInstrumentation.enter();
+        }
+        try {
+            while(rightIndex - leftIndex + 1 > INSERTION_SORT_THRESHOLD){
+                if(depthLimit == 0){
+                    heapSort(arr, leftIndex, rightIndex, c);
+                    return;
+                }
+                depthLimit--;
+
+                //将选出的轴换到左边界，再进行partition
+                swap(arr, leftIndex, choosePivot(arr, leftIndex, rightIndex, c));
+                int pivotIndex = balancedPartition(arr, leftIndex, rightIndex, c);
+                if(SortInstrumentation.ENABLED){
+                    SortInstrumentation.partition(rightIndex - leftIndex + 1, Math.max(pivotIndex - leftIndex, rightIndex - pivotIndex));
+                }
+
+                //只递归较短的一侧，较长的一侧通过循环处理
+                if(pivotIndex - leftIndex < rightIndex - pivotIndex){
+                    introSort(arr, leftIndex, pivotIndex - 1, depthLimit, c);
+                    leftIndex = pivotIndex + 1;
+                }else{
+                    introSort(arr, pivotIndex + 1, rightIndex, depthLimit, c);
+                    rightIndex = pivotIndex - 1;
+                }
+            }
+            insertionSort(arr, leftIndex, rightIndex, c);
+        } finally {
+            if(SortInstrumentation.ENABLED){
+                SortInstrumentation.exit();
+            }
+        }
+    }
+
+    /**
+     * 选择轴的索引：小区间使用三数取中，大区间使用ninther
+     */
+    private static <T> int choosePivot(T[] arr, int leftIndex, int rightIndex, Comparator<? super T> c){
+        int n = rightIndex - leftIndex + 1;
+        int mid = leftIndex + n / 2;
+        if(n <= NINTHER_THRESHOLD){
+            return medianOfThree(arr, leftIndex, mid, rightIndex, c);
+        }
+        int step = n / 8;
+        int m1 = medianOfThree(arr, leftIndex, leftIndex + step, leftIndex + 2 * step, c);
+        int m2 = medianOfThree(arr, mid - step, mid, mid + step, c);
+        int m3 = medianOfThree(arr, rightIndex - 2 * step, rightIndex - step, rightIndex, c);
+        return medianOfThree(arr, m1, m2, m3, c);
+    }
+
+    /**
+     * 返回arr[i], arr[j], arr[k]三者中位数的索引
+     */
+    private static <T> int medianOfThree(T[] arr, int i, int j, int k, Comparator<? super T> c){
+        if(c.compare(arr[i], arr[j]) < 0){
+            if(c.compare(arr[j], arr[k]) < 0){
+                return j;
+            }
+            return c.compare(arr[i], arr[k]) < 0 ? k : i;
+        }
+        if(c.compare(arr[k], arr[j]) < 0){
+            return j;
+        }
+        return c.compare(arr[k], arr[i]) < 0 ? k : i;
+    }
+
+    /**
+     * 以arr[leftIndex]为轴的双向partition。与partition不同，左右两侧扫描遇到与轴相等的元素时都会停下并交换，
+     * 因此大量重复元素会被平均分到两侧，不会使划分严重失衡。
+     * @return pivot index
+     */
+    private static <T> int balancedPartition(T[] arr, int leftIndex, int rightIndex, Comparator<? super T> c){
+        T pivot = arr[leftIndex];
+        int l = leftIndex, r = rightIndex + 1;
+        while(true){
+            while(c.compare(arr[++l], pivot) < 0){
+                if(l == rightIndex){
+                    break;
+                }
+            }
+            //arr[leftIndex]即为轴，因此r不会越过左边界
+            while(c.compare(pivot, arr[--r]) < 0){
+            }
+            if(l >= r){
+                break;
+            }
+            swap(arr, l, r);
+        }
+        swap(arr, leftIndex, r);
+        return r;
+    }
+
+    /**
+     * 使用比较器c的三路快排。
+     * @param arr array to be sorted
+     * @param c comparator
+     * @param <T> type of elements
+     */
+    public static <T> void quickSort3Ways(T[] arr, Comparator<? super T> c){
+        quickSort3Ways(arr, 0, arr.length - 1, c);
+    }
+
+    private static <T> void quickSort3Ways(T[] arr, int leftIndex, int rightIndex, Comparator<? super T> c){
+        if(SortInstrumentation.ENABLED){
+            SortInstrumentation.enter();
+        }
+        try {
+            while(rightIndex - leftIndex + 1 > INSERTION_SORT_THRESHOLD){
+                swap(arr, leftIndex, choosePivot(arr, leftIndex, rightIndex, c));
+                T pivot = arr[leftIndex];
+
+                //arr[leftIndex...lt-1] < pivot, arr[lt...i-1] == pivot, arr[gt+1...rightIndex] > pivot
+                int lt = leftIndex, i = leftIndex + 1, gt = rightIndex;
+                while(i <= gt){
+                    int cmp = c.compare(arr[i], pivot);
+                    if(cmp < 0){
+                        swap(arr, lt++, i++);
+                    }else if(cmp > 0){
+                        swap(arr, i, gt--);
+                    }else{
+                        i++;
+                    }
+                }
+                if(SortInstrumentation.ENABLED){
+                    SortInstrumentation.partition(rightIndex - leftIndex + 1, Math.max(lt - leftIndex, rightIndex - gt));
+                }
+
+                //只递归较短的一侧，较长的一侧通过循环处理
+                if(lt - leftIndex < rightIndex - gt){
+                    quickSort3Ways(arr, leftIndex, lt - 1, c);
+                    leftIndex = gt + 1;
+                }else{
+                    quickSort3Ways(arr, gt + 1, rightIndex, c);
+                    rightIndex = lt - 1;
+                }
+            }
+            insertionSort(arr, leftIndex, rightIndex, c);
+        } finally {
+            if(SortInstrumentation.ENABLED){
+                SortInstrumentation.exit();
+            }
+        }
+    }
+
+    /**
+     * 使用比较器c的双轴快排。
+     * @param arr array to be sorted
+     * @param c comparator
+     * @param <T> type of elements
+     */
+    public static <T> void dualPivotQuickSort(T[] arr, Comparator<? super T> c){
+        dualPivotQuickSort(arr, 0, arr.length - 1, c);
+    }
+
+    private static <T> void dualPivotQuickSort(T[] arr, int leftIndex, int rightIndex, Comparator<? super T> c){
+        if(SortInstrumentation.ENABLED){
+            SortInstrumentation.enter();
+        }
+        try {
+            if(rightIndex - leftIndex + 1 <= INSERTION_SORT_THRESHOLD){
+                insertionSort(arr, leftIndex, rightIndex, c);
+                return;
+            }
+            //取三等分点作为两个轴，避免近乎有序的数组退化
+            int third = (rightIndex - leftIndex + 1) / 3;
+            swap(arr, leftIndex, leftIndex + third);
+            swap(arr, rightIndex, rightIndex - third);
+            if(c.compare(arr[leftIndex], arr[rightIndex]) > 0){
+                swap(arr, leftIndex, rightIndex);
+            }
+            T p = arr[leftIndex], q = arr[rightIndex];
+
+            //arr[leftIndex+1...lt-1] < p, arr[lt...i-1]在[p, q]之间, arr[gt+1...rightIndex-1] > q
+            int lt = leftIndex + 1, i = leftIndex + 1, gt = rightIndex - 1;
+            while(i <= gt){
+                if(c.compare(arr[i], p) < 0){
+                    swap(arr, lt++, i++);
+                }else if(c.compare(arr[i], q) > 0){
+                    swap(arr, i, gt--);
+                }else{
+                    i++;
+                }
+            }
+            //两个轴换到各自的最终位置
+            swap(arr, leftIndex, --lt);
+            swap(arr, rightIndex, ++gt);
+            if(SortInstrumentation.ENABLED){
+                SortInstrumentation.partition(rightIndex - leftIndex + 1, Math.max(Math.max(lt - leftIndex, gt - lt - 1), rightIndex - gt));
+            }
+
+            dualPivotQuickSort(arr, leftIndex, lt - 1, c);
+            if(c.compare(p, q) < 0){
+                dualPivotQuickSort(arr, lt + 1, gt - 1, c);
+            }
+            dualPivotQuickSort(arr, gt + 1, rightIndex, c);
+        } finally {
+            if(SortInstrumentation.ENABLED){
+                SortInstrumentation.exit();
+            }
+        }
+    }
+
+    /**
+     * 使用比较器c的堆排序。
+     * @param arr array to be sorted
+     * @param c comparator
+     * @param <T> type of elements
+     */
+    public static <T> void heapSort(T[] arr, Comparator<? super T> c){
+        heapSort(arr, 0, arr.length - 1, c);
+    }
+
+    /**
+     * 对[leftIndex, rightIndex]区间执行堆排序，区间内的元素看作一个以leftIndex为根的堆。
+     * @param arr array to be sorted
+     * @param leftIndex left index
+     * @param rightIndex right index
+     * @param c comparator
+     * @param <T> type of elements
+     */
+    private static <T> void heapSort(T[] arr, int leftIndex, int rightIndex, Comparator<? super T> c){
+        int n = rightIndex - leftIndex + 1;
+        heapify(arr, leftIndex, n, c);
+        //逆序遍历数组，每次与堆顶元素交换，然后堆顶元素执行下沉(shiftDown)操作
+        for (int i = n - 1;  i > 0; i--) {
+            swap(arr, leftIndex, leftIndex + i);
+            //每次下沉的边界为i，否则又会打乱顺序
+            shiftDown(arr, leftIndex, 0, i, c);
+        }
+    }
+
+    /**
+     * 由于任意数组都可以看作一棵完全二叉树，因此heapify操作可将任意数组堆化。所谓堆化，就是将任意数组转化为二叉堆。
+     * heapify的实现：从最后一个非叶子节点开始，依次对每一个非叶子节点执行shift down操作即可。
+     * 最后一个非叶子节点的索引定位：若数组下标从0开始，则为(n-1-1)/2。
+     * @param arr array to be heapified
+     * @param offset 堆的根节点在数组中的索引
+     * @param n 堆的大小
+     * @param c comparator
+     * @param <T> type of elements
+     */
+    private static <T> void heapify(T[] arr, int offset, int n, Comparator<? super T> c){
+        for (int i = (n - 2)/2; i >= 0 ; i--) {
+            shiftDown(arr, offset, i, n, c);
+        }
+    }
+
+    /**
+     * 对堆中索引为i的节点执行下沉操作。这里构建的是大根堆。堆中索引为i的节点位于数组的offset+i处。
+     * @param arr array
+     * @param offset 堆的根节点在数组中的索引
+     * @param i 待下沉节点索引
+     * @param heapSize 堆的大小，即每次下沉的右边界（开区间）
+     * @param c comparator
+     * @param <T> type of elements
+     */
+    private static <T> void shiftDown(T[] arr, int offset, int i, int heapSize, Comparator<? super T> c){
+        while (2*i+1 < heapSize){
+            int temp = 2*i+1;
+            //判断右孩子索引是否越界
+            if(temp + 1 < heapSize && c.compare(arr[offset+temp+1], arr[offset+temp]) > 0) {
+                //若右孩子大于左孩子，则temp改为右孩子索引
+                temp++;
+            }
+
+            //待下沉节点若大于其左右孩子，循环终止；否则与其左右孩子中较大的一个交换。
+            if(c.compare(arr[offset+i], arr[offset+temp]) >= 0){
+                break;
+            }
+            swap(arr, offset+i, offset+temp);
+
+            //继续下沉
+            i = temp;
+        }
+    }
+
+    /**
+     * 使用比较器c的Floyd堆排序，Comparable版本也委托给该方法。
+     * @param arr array to be sorted
+     * @param arity 堆的叉数，常用2或4
+     * @param c comparator
+     * @param <T> type of elements
+     */
+    public static <T> void floydHeapSort(T[] arr, int arity, Comparator<? super T> c){
+        if(arity < 2){
+            throw new IllegalArgumentException("arity should be at least 2.");
+        }
+        int n = arr.length;
+        for (int i = n / arity; i >= 0; i--) {
+            if(i < n){
+                floydShiftDown(arr, i, arr[i], n, arity, c);
+            }
+        }
+        for (int end = n - 1; end > 0; end--) {
+            //堆顶放到末尾，原来末尾的元素从堆顶的空位开始下沉
+            T e = arr[end];
+            arr[end] = arr[0];
+            floydShiftDown(arr, 0, e, end, arity, c);
+        }
+    }
+
+    /**
+     * 将e放入以hole为根的子堆，hole处原来的元素已被取走。堆的范围为[0, heapSize)
+     */
+    private static <T> void floydShiftDown(T[] arr, int hole, T e, int heapSize, int arity, Comparator<? super T> c){
+        int top = hole, moves = 1;
+        //最后一个有孩子的节点，写成除法避免arity * hole溢出
+        int lastParent = heapSize >= 2 ? (heapSize - 2) / arity : -1;
+        //沿较大的孩子把空位移到叶子
+        while (hole <= lastParent) {
+            int child = arity * hole + 1, max = child;
+            if(arity == 2){
+                if(child + 1 < heapSize && c.compare(arr[child + 1], arr[child]) > 0){
+                    max++;
+                }
+            }else{
+                for (int j = child + 1, last = Math.min(child + arity, heapSize); j < last; j++) {
+                    if(c.compare(arr[j], arr[max]) > 0){
+                        max = j;
+                    }
+                }
+            }
+            arr[hole] = arr[max];
+            hole = max;
+            moves++;
+        }
+        //从叶子往上为e找位置，不超过子堆的根
+        while (hole > top) {
+            int parent = (hole - 1) / arity;
+            if(c.compare(arr[parent], e) >= 0){
+                break;
+            }
+            arr[hole] = arr[parent];
+            hole = parent;
+            moves++;
+        }
+        arr[hole] = e;
+        if(SortInstrumentation.ENABLED){
+            SortInstrumentation.moves(moves);
+        }
+    }
+
+    /**
+     * 使用比较器c的并行归并排序，使用公共线程池ForkJoinPool.commonPool()。
+     * @param arr array to be sorted
+     * @param c comparator
+     * @param <T> type of elements
+     */
+    public static <T> void parallelMergeSort(T[] arr, Comparator<? super T> c){
+        parallelMergeSort(arr, ForkJoinPool.commonPool(), PARALLEL_MERGE_SORT_THRESHOLD, c);
+    }
+
+    public static <T> void parallelMergeSort(T[] arr, ForkJoinPool pool, Comparator<? super T> c){
+        parallelMergeSort(arr, pool, PARALLEL_MERGE_SORT_THRESHOLD, c);
+    }
+
+    /**
+     * 使用比较器c的并行归并排序，Comparable版本也委托给该方法。
+     * @param arr array to be sorted
+     * @param pool 执行排序任务的线程池
+     * @param threshold 串行阈值，至少为2
+     * @param c comparator
+     * @param <T> type of elements
+     */
+    public static <T> void parallelMergeSort(T[] arr, ForkJoinPool pool, int threshold, Comparator<? super T> c){
+        //threshold为1时，1+1的合并若右边的元素不小于左边的元素，拆分出的第二个子合并与原合并完全相同，会无限递归
+        if(threshold < 2){
+            throw new IllegalArgumentException("threshold should be at least 2.");
+        }
+        if(arr.length <= threshold || pool.getParallelism() == 1){
+            mergeSortLeaf(arr, 0, arr.length, c);
+            return;
+        }
+        T[] temp = Arrays.copyOf(arr, arr.length);
+        pool.invoke(new ParallelMergeSortTask<>(arr, temp, 0, arr.length, threshold, c));
+    }
+
+    /**
+     * 串行排序arr[from, to)：小区间使用插入排序，否则使用归并排序
+     */
+    private static <T> void mergeSortLeaf(T[] arr, int from, int to, Comparator<? super T> c){
+        if(to - from <= INSERTION_SORT_THRESHOLD){
+            insertionSort(arr, from, to - 1, c);
+        }else{
+            mergeSort(arr, from, to - 1, c);
+        }
+    }
+
+    /**
+     * 并行排序arr[from, to)的任务，temp为与arr等长的辅助数组
+     */
+    private static final class ParallelMergeSortTask<T> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final T[] arr;
+        private final T[] temp;
+        private final int from;
+        private final int to;
+        private final int threshold;
+        private final Comparator<? super T> c;
+
+        ParallelMergeSortTask(T[] arr, T[] temp, int from, int to, int threshold, Comparator<? super T> c){
+            this.arr = arr;
+            this.temp = temp;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.c = c;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from <= threshold){
+                mergeSortLeaf(arr, from, to, c);
+                return;
+            }
+            int mid = from + (to - from) / 2;
+            invokeAll(new ParallelMergeSortTask<>(arr, temp, from, mid, threshold, c),
+                    new ParallelMergeSortTask<>(arr, temp, mid, to, threshold, c));
+
+            //左右两半已经整体有序，无需合并
+            if(c.compare(arr[mid - 1], arr[mid]) <= 0){
+                return;
+            }
+            System.arraycopy(arr, from, temp, from, to - from);
+            new ParallelMergeTask<>(temp, from, mid, mid, to, arr, from, threshold, c).compute();
+        }
+    }
+
+    /**
+     * 将src[leftFrom, leftTo)与src[rightFrom, rightTo)两段有序区间并行合并到dest[destFrom...]中
+     */
+    private static final class ParallelMergeTask<T> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final T[] src;
+        private final int leftFrom, leftTo, rightFrom, rightTo;
+        private final T[] dest;
+        private final int destFrom;
+        private final int threshold;
+        private final Comparator<? super T> c;
+
+        ParallelMergeTask(T[] src, int leftFrom, int leftTo, int rightFrom, int rightTo,
+                          T[] dest, int destFrom, int threshold, Comparator<? super T> c){
+            this.src = src;
+            this.leftFrom = leftFrom;
+            this.leftTo = leftTo;
+            this.rightFrom = rightFrom;
+            this.rightTo = rightTo;
+            this.dest = dest;
+            this.destFrom = destFrom;
+            this.threshold = threshold;
+            this.c = c;
+        }
+
+        @Override
+        protected void compute() {
+            int leftLen = leftTo - leftFrom, rightLen = rightTo - rightFrom;
+            if(leftLen + rightLen <= threshold || leftLen == 0 || rightLen == 0){
+                sequentialMerge();
+                return;
+            }
+
+            int leftMid, rightMid;
+            if(leftLen >= rightLen){
+                //左半部分的中点元素及其后的元素归入后一个子合并，右半部分中与之相等的元素也必须在其后，因此取第一个>=它的位置
+                leftMid = leftFrom + leftLen / 2;
+                rightMid = lowerBound(src, rightFrom, rightTo, src[leftMid], c);
+            }else{
+                //右半部分的中点元素归入后一个子合并，左半部分中与之相等的元素必须在其前，因此取第一个>它的位置
+                rightMid = rightFrom + rightLen / 2;
+                leftMid = upperBound(src, leftFrom, leftTo, src[rightMid], c);
+            }
+            int destMid = destFrom + (leftMid - leftFrom) + (rightMid - rightFrom);
+
+            invokeAll(new ParallelMergeTask<>(src, leftFrom, leftMid, rightFrom, rightMid, dest, destFrom, threshold, c),
+                    new ParallelMergeTask<>(src, leftMid, leftTo, rightMid, rightTo, dest, destMid, threshold, c));
+        }
+
+        private void sequentialMerge(){
+            int i = leftFrom, j = rightFrom, k = destFrom;
+            while(i < leftTo && j < rightTo){
+                if(c.compare(src[i], src[j]) <= 0){
+                    dest[k++] = src[i++];
+                }else{
+                    dest[k++] = src[j++];
+                }
+            }
+            //以下两个复制只可能执行其中某一个
+            System.arraycopy(src, i, dest, k, leftTo - i);
+            System.arraycopy(src, j, dest, k, rightTo - j);
+        }
+    }
+
+    /**
+     * 在有序区间arr[from, to)中二分查找第一个大于等于key的元素的索引
+     */
+    private static <T> int lowerBound(T[] arr, int from, int to, T key, Comparator<? super T> c){
+        while(from < to){
+            int mid = (from + to) >>> 1;
+            if(c.compare(arr[mid], key) < 0){
+                from = mid + 1;
+            }else{
+                to = mid;
+            }
+        }
+        return from;
+    }
+
+    /**
+     * 在有序区间arr[from, to)中二分查找第一个大于key的元素的索引
+     */
+    private static <T> int upperBound(T[] arr, int from, int to, T key, Comparator<? super T> c){
+        while(from < to){
+            int mid = (from + to) >>> 1;
+            if(c.compare(arr[mid], key) <= 0){
+                from = mid + 1;
+            }else{
+                to = mid;
+            }
+        }
+        return from;
+    }
+
+    /**
+     * 使用比较器c的并行样本排序，使用公共线程池ForkJoinPool.commonPool()。
+     * @param arr array to be sorted
+     * @param c comparator
+     * @param <T> type of elements
+     */
+    public static <T> void parallelSampleSort(T[] arr, Comparator<? super T> c){
+        parallelSampleSort(arr, ForkJoinPool.commonPool(), c);
+    }
+
+    /**
+     * 使用比较器c的并行样本排序，Comparable版本也委托给该方法。
+     * 1. 过采样：随机抽取buckets·SAMPLE_SORT_OVERSAMPLING个样本排序，等间隔取出buckets-1个分割元素，
+     *    按完全二叉树的层序（下标从1开始）存放；
+     * 2. 分类：数组按块并行处理，每个元素沿分割树比较logBuckets次得到桶号，下一个节点为2j + (e > tree[j] ? 1 : 0)，
+     *    没有分支预测失败；桶号记入byte数组，同时统计每块每桶的元素个数；
+     * 3. 分发：由每块每桶的计数求前缀和，得到每块在每个桶中的写入位置，各块并行地把元素写入同一个辅助数组；
+     * 4. 各桶并行地使用归并排序，结果写回原数组。
+     * 分类和分发都按块内顺序进行，相等的元素进入同一个桶且保持原有顺序，因此排序是稳定的。
+     * 整个排序只开辟一个与原数组等长的辅助数组（另有n个字节的桶号数组）。
+     * 当大量元素相等时，它们会落入同一个桶，该桶只能串行排序。
+     * @param arr array to be sorted
+     * @param pool 执行排序任务的线程池
+     * @param c comparator
+     * @param <T> type of elements
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> void parallelSampleSort(T[] arr, ForkJoinPool pool, Comparator<? super T> c){
+        int n = arr.length;
+        int buckets = sampleSortBuckets(n, pool.getParallelism());
+        if(buckets < 2){
+            bufferedMergeSort(arr, c);
+            return;
+        }
+        int logBuckets = log2(buckets);
+
+        T[] sample = (T[]) new Object[buckets * SAMPLE_SORT_OVERSAMPLING];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < sample.length; i++) {
+            sample[i] = arr[random.nextInt(n)];
+        }
+        bufferedMergeSort(sample, c);
+        T[] tree = (T[]) new Object[buckets];
+        for (int j = 1; j < buckets; j++) {
+            tree[j] = sample[splitterRank(j, logBuckets) * SAMPLE_SORT_OVERSAMPLING - 1];
+        }
+
+        int blocks = sampleSortBlocks(n, pool.getParallelism());
+        int blockSize = (n + blocks - 1) / blocks;
+        byte[] oracle = new byte[n];
+        int[][] counts = new int[blocks][buckets];
+        pool.invoke(new ParallelForTask(0, blocks, b -> {
+            int[] count = counts[b];
+            for (int i = b * blockSize, to = Math.min(n, i + blockSize); i < to; i++) {
+                T e = arr[i];
+                int j = 1;
+                for (int level = 0; level < logBuckets; level++) {
+                    j = 2 * j + (c.compare(e, tree[j]) > 0 ? 1 : 0);
+                }
+                oracle[i] = (byte) (j - buckets);
+                count[j - buckets]++;
+            }
+        }));
+
+        int[] bucketStart = sampleSortOffsets(counts, buckets);
+        T[] buffer = (T[]) Array.newInstance(arr.getClass().getComponentType(), n);
+        pool.invoke(new ParallelForTask(0, blocks, b -> {
+            int[] offset = counts[b];
+            for (int i = b * blockSize, to = Math.min(n, i + blockSize); i < to; i++) {
+                buffer[offset[oracle[i] & 0xFF]++] = arr[i];
+            }
+        }));
+
+        pool.invoke(new ParallelForTask(0, buckets, k -> {
+            int from = bucketStart[k], to = bucketStart[k + 1];
+            if(from == to){
+                return;
+            }
+            //bufferedMergeSort要求两个数组在该区间内容相同，结果写入dest，即原数组
+            System.arraycopy(buffer, from, arr, from, to - from);
+            bufferedMergeSort(buffer, arr, from, to - 1, c);
+        }));
+    }
+
+    /* ============================ 选择与部分排序 ============================ */
+
+    /**
+     * 快速选择：重排数组，使arr[k]为排序后位于k处的元素，arr[0...k-1]均不大于它，arr[k+1...]均不小于它。
+     * 平均时间复杂度为O(n)。
+     * @param arr array
+     * @param k 0 <= k < arr.length
+     * @param <T> type of elements
+     * @return 第k小（从0开始）的元素
+     */
+    public static <T extends Comparable<T>> T nthElement(T[] arr, int k){
+        return nthElement(arr, k, Comparator.<T>naturalOrder());
+    }
+
+    /**
+     * 使用比较器c的快速选择。
+     * 与quickSort使用的partition不同，这里先用三数取中/ninther选轴，再用遇到相等元素也会停下的balancedPartition划分，
+     * 有序数组和大量重复元素都不会使划分失衡；若某次划分后待查找的一侧仍超过区间的3/4，下一次改用中位数的中位数
+     * (median of medians)选轴，保证最坏情况下也是O(n)。
+     * @param arr array
+     * @param k 0 <= k < arr.length
+     * @param c comparator
+     * @param <T> type of elements
+     * @return 第k小（从0开始）的元素
+     */
+    public static <T> T nthElement(T[] arr, int k, Comparator<? super T> c){
+        if(k < 0 || k >= arr.length){
+            throw new IllegalArgumentException("k is out of range.");
+        }
+        select(arr, 0, arr.length - 1, k, c);
+        return arr[k];
+    }
+
+    /**
+     * 部分排序：将最小的k个元素按顺序放在数组的前k个位置，其余元素的顺序不确定。
+     * 先用nthElement划分出前k个元素，再只对这k个元素排序，时间复杂度为O(n + klogk)。
+     * @param arr array
+     * @param k 0 <= k <= arr.length
+     * @param <T> type of elements
+     */
+    public static <T extends Comparable<T>> void partialSort(T[] arr, int k){
+        partialSort(arr, k, Comparator.<T>naturalOrder());
+    }
+
+    /**
+     * 使用比较器c的部分排序。
+     * @param arr array
+     * @param k 0 <= k <= arr.length
+     * @param c comparator
+     * @param <T> type of elements
+     */
+    public static <T> void partialSort(T[] arr, int k, Comparator<? super T> c){
+        if(k < 0 || k > arr.length){
+            throw new IllegalArgumentException("k is out of range.");
+        }
+        if(k == 0){
+            return;
+        }
+        if(k < arr.length){
+            select(arr, 0, arr.length - 1, k - 1, c);
+        }
+        introSort(arr, 0, k - 1, 2 * log2(k), c);
+    }
+
+    /**
+     * 在arr[leftIndex...rightIndex]中查找第k小的元素并将其放到k处
+     */
+    private static <T> void select(T[] arr, int leftIndex, int rightIndex, int k, Comparator<? super T> c){
+        boolean useMedianOfMedians = false;
+        while(rightIndex - leftIndex + 1 > INSERTION_SORT_THRESHOLD){
+            int n = rightIndex - leftIndex + 1;
+            int pivot = useMedianOfMedians ? medianOfMedians(arr, leftIndex, rightIndex, c) :
+                    choosePivot(arr, leftIndex, rightIndex, c);
+            swap(arr, leftIndex, pivot);
+            int pivotIndex = balancedPartition(arr, leftIndex, rightIndex, c);
+            if(SortInstrumentation.ENABLED){
+                SortInstrumentation.partition(n, Math.max(pivotIndex - leftIndex, rightIndex - pivotIndex));
+            }
+
+            if(k == pivotIndex){
+                return;
+            }else if(k < pivotIndex){
+                rightIndex = pivotIndex - 1;
+            }else{
+                leftIndex = pivotIndex + 1;
+            }
+            //划分效果不好时，下一次使用中位数的中位数，保证区间按比例缩小
+            useMedianOfMedians = rightIndex - leftIndex + 1 > n / 4 * 3;
+        }
+        insertionSort(arr, leftIndex, rightIndex, c);
+    }
+
+    /**
+     * 中位数的中位数：每5个元素一组，用插入排序求出每组的中位数并依次移到区间开头，再递归选出这些中位数的中位数。
+     * 以它为轴划分时，两侧都至少有约3/10的元素。
+     * @return pivot index
+     */
+    private static <T> int medianOfMedians(T[] arr, int leftIndex, int rightIndex, Comparator<? super T> c){
+        int medians = 0;
+        for (int i = leftIndex; i <= rightIndex; i += 5) {
+            int end = Math.min(i + 4, rightIndex);
+            insertionSort(arr, i, end, c);
+            //leftIndex + medians < i，不会打乱还未处理的分组
+            swap(arr, leftIndex + medians, i + (end - i) / 2);
+            medians++;
+        }
+        int mid = leftIndex + (medians - 1) / 2;
+        select(arr, leftIndex, leftIndex + medians - 1, mid, c);
+        return mid;
+    }
+
+    /**
+     * 从迭代器中选出最大的k个元素，按从大到小的顺序返回。
+     * 只维护一个容量为k的小根堆，不缓存整个输入，时间复杂度为O(nlogk)，额外空间为O(k)。
+     * 相等的元素中先出现的优先保留。
+     * @param it 输入
+     * @param k 需要的元素个数，输入不足k个时返回全部元素
+     * @param <T> type of elements
+     * @return 最大的k个元素，从大到小排列
+     */
+    public static <T extends Comparable<T>> List<T> topK(Iterator<? extends T> it, int k){
+        return topK(it, k, Comparator.<T>naturalOrder());
+    }
+
+    /**
+     * 从流中选出最大的k个元素，按从大到小的顺序返回。
+     * @param stream 输入
+     * @param k 需要的元素个数
+     * @param <T> type of elements
+     * @return 最大的k个元素，从大到小排列
+     */
+    public static <T extends Comparable<T>> List<T> topK(Stream<? extends T> stream, int k){
+        return topK(stream.iterator(), k, Comparator.<T>naturalOrder());
+    }
+
+    /**
+     * 从流中选出按比较器c最大的k个元素，按从大到小的顺序返回。
+     * @param stream 输入
+     * @param k 需要的元素个数
+     * @param c comparator
+     * @param <T> type of elements
+     * @return 最大的k个元素，从大到小排列
+     */
+    public static <T> List<T> topK(Stream<? extends T> stream, int k, Comparator<? super T> c){
+        return topK(stream.iterator(), k, c);
+    }
+
+    /**
+     * 从迭代器中选出按比较器c最大的k个元素，按从大到小的顺序返回。若需要最小的k个元素，传入c.reversed()即可。
+     * @param it 输入
+     * @param k 需要的元素个数
+     * @param c comparator
+     * @param <T> type of elements
+     * @return 最大的k个元素，从大到小排列
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> List<T> topK(Iterator<? extends T> it, int k, Comparator<? super T> c){
+        if(k < 0){
+            throw new IllegalArgumentException("k should not be negative.");
+        }
+        if(k == 0){
+            return new ArrayList<>();
+        }
+        //小根堆，堆顶是目前保留的k个元素中最小的一个
+        T[] heap = (T[]) new Object[Math.min(k, 1024)];
+        int size = 0;
+        while(it.hasNext()){
+            T e = it.next();
+            if(size < k){
+                if(size == heap.length){
+                    heap = Arrays.copyOf(heap, (int) Math.min((long) k, 2L * size));
+                }
+                heap[size] = e;
+                topKShiftUp(heap, size++, c);
+            }else if(c.compare(e, heap[0]) > 0){
+                //只有严格大于堆顶时才替换，相等时保留先出现的元素
+                heap[0] = e;
+                topKShiftDown(heap, 0, size, c);
+            }
+        }
+
+        //原地堆排序：依次将堆顶（当前最小）换到末尾，结果从大到小排列
+        for (int i = size - 1; i > 0; i--) {
+            swap(heap, 0, i);
+            topKShiftDown(heap, 0, i, c);
+        }
+        return new ArrayList<>(Arrays.asList(heap).subList(0, size));
+    }
+
+    private static <T> void topKShiftUp(T[] heap, int i, Comparator<? super T> c){
+        T e = heap[i];
+        while(i > 0){
+            int parent = (i - 1) / 2;
+            if(c.compare(heap[parent], e) <= 0){
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = e;
+    }
+
+    private static <T> void topKShiftDown(T[] heap, int i, int size, Comparator<? super T> c){
+        T e = heap[i];
+        while(2 * i + 1 < size){
+            int child = 2 * i + 1;
+            if(child + 1 < size && c.compare(heap[child + 1], heap[child]) < 0){
+                child++;
+            }
+            if(c.compare(e, heap[child]) <= 0){
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = e;
+    }
+
+    /* ============================ 装饰-排序-去装饰 ============================ */
+
+    /**
+     * 装饰-排序-去装饰(Schwartzian transform)：先为每个元素提取一次关键字，存入与原数组平行的关键字数组，
+     * 再按关键字进行归并排序，元素随关键字一起移动。使用比较器时每次比较都要重新计算关键字（如解析时间戳、按语言规则比较字符串），
+     * 共计算O(nlog₂n)次；这里每个元素只计算一次。排序是稳定的。
+     * @param arr array to be sorted
+     * @param keyExtractor 关键字提取函数
+     * @param <T> type of elements
+     * @param <K> type of keys
+     */
+    @SuppressWarnings("unchecked")
+    public static <T, K extends Comparable<? super K>> void sortByKey(T[] arr, Function<? super T, ? extends K> keyExtractor){
+        int n = arr.length;
+        K[] keys = (K[]) new Comparable<?>[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = keyExtractor.apply(arr[i]);
+        }
+        K[] keyBuffer = Arrays.copyOf(keys, n);
+        T[] buffer = Arrays.copyOf(arr, n);
+        keyedMergeSort(keyBuffer, buffer, keys, arr, 0, n - 1);
+    }
+
+    /**
+     * 与bufferedMergeSort相同，在两组数组之间交替读写，将[leftIndex, rightIndex]按关键字排序后写入destKeys与dest。
+     * 调用前src与dest（srcKeys与destKeys）在该区间的内容相同。
+     */
+    private static <T, K extends Comparable<? super K>> void keyedMergeSort(K[] srcKeys, T[] src, K[] destKeys, T[] dest,
+                                                                         int leftIndex, int rightIndex) {
+        if(rightIndex - leftIndex + 1 <= INSERTION_SORT_THRESHOLD){
+            for (int i = leftIndex + 1; i <= rightIndex; i++) {
+                K key = destKeys[i];
+                T e = dest[i];
+                int j;
+                for (j = i; j > leftIndex && destKeys[j-1].compareTo(key) > 0; j--) {
+                    destKeys[j] = destKeys[j-1];
+                    dest[j] = dest[j-1];
+                }
+                destKeys[j] = key;
+                dest[j] = e;
+            }
+            return;
+        }
+        int midIndex = leftIndex + (rightIndex - leftIndex)/2;
+        keyedMergeSort(destKeys, dest, srcKeys, src, leftIndex, midIndex);
+        keyedMergeSort(destKeys, dest, srcKeys, src, midIndex+1, rightIndex);
+
+        int i = leftIndex, j = midIndex + 1, k = leftIndex;
+        while(i <= midIndex && j <= rightIndex){
+            if(srcKeys[i].compareTo(srcKeys[j]) <= 0){
+                destKeys[k] = srcKeys[i];
+                dest[k++] = src[i++];
+            }else{
+                destKeys[k] = srcKeys[j];
+                dest[k++] = src[j++];
+            }
+        }
+        int length = midIndex + 1 - i;
+        System.arraycopy(srcKeys, i, destKeys, k, length);
+        System.arraycopy(src, i, dest, k, length);
+        k += length;
+        System.arraycopy(srcKeys, j, destKeys, k, rightIndex + 1 - j);
+        System.arraycopy(src, j, dest, k, rightIndex + 1 - j);
+    }
+
+    /**
+     * 按int关键字排序，每个元素只提取一次关键字，使用RadixSort完成排序。排序是稳定的。
+     * @param arr array to be sorted
+     * @param keyExtractor 关键字提取函数
+     * @param <T> type of elements
+     */
+    public static <T> void sortByIntKey(T[] arr, ToIntFunction<? super T> keyExtractor){
+        RadixSort.sortByIntKey(arr, keyExtractor);
+    }
+
+    /**
+     * 按long关键字排序，每个元素只提取一次关键字，使用RadixSort完成排序。排序是稳定的。
+     * @param arr array to be sorted
+     * @param keyExtractor 关键字提取函数
+     * @param <T> type of elements
+     */
+    public static <T> void sortByLongKey(T[] arr, ToLongFunction<? super T> keyExtractor){
+        RadixSort.sortByLongKey(arr, keyExtractor);
+    }
+
+    /**
+     * 按double关键字排序，顺序与Double.compare一致（-0.0在0.0之前，NaN在最后）。
+     * double的位模式翻转后即可按long的大小比较，因此同样使用RadixSort完成排序。
+     * @param arr array to be sorted
+     * @param keyExtractor 关键字提取函数
+     * @param <T> type of elements
+     */
+    public static <T> void sortByDoubleKey(T[] arr, ToDoubleFunction<? super T> keyExtractor){
+        RadixSort.sortByLongKey(arr, e -> {
+            long bits = Double.doubleToLongBits(keyExtractor.applyAsDouble(e));
+            //负数翻转除符号位外的所有位，使其按long比较时的顺序与double一致
+            return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+        });
+    }
+
+    /* ============================ 基本类型版本 ============================ */
+    // 以下为int[]、long[]、double[]的重载版本，直接比较基本类型，避免装箱、指针跳转以及compareTo的虚调用。
+    // double[]版本按Double.compare的顺序排序（-0.0在0.0之前，NaN排在最后），与Arrays.sort(double[])的结果一致。
+
+    /**
+     * int[]版本的插入排序，直接操作基本类型，避免装箱和compareTo的虚调用。
+     * @param arr array to be sorted
+     */
+    public static void insertionSort(int[] arr){
+        insertionSort(arr, 0, arr.length - 1);
+    }
+
+    /**
+     * 对[leftIndex, rightIndex]区间执行插入排序
+     * @param arr array to be sorted
+     * @param leftIndex left index
+     * @param rightIndex right index
+     */
+    private static void insertionSort(int[] arr, int leftIndex, int rightIndex){
+        for (int i = leftIndex + 1; i <= rightIndex; i++) {
+            int e = arr[i];
+            int j;
+            for (j = i; j > leftIndex && arr[j-1] > e; j--) {
+                arr[j] = arr[j-1];
+            }
+            arr[j] = e;
+        }
+    }
+
+    /**
+     * int[]版本的自顶向下归并排序。
+     * @param arr array to be sorted
+     */
+    public static void mergeSort(int[] arr){
+        mergeSort(arr, 0, arr.length-1);
+    }
+
+    private static void mergeSort(int[] arr, int leftIndex, int rightIndex) {
+        if(leftIndex >= rightIndex){
+            return;
+        }
+        int midIndex = leftIndex + (rightIndex - leftIndex)/2;
+
+        mergeSort(arr, leftIndex, midIndex);
+        mergeSort(arr, midIndex+1, rightIndex);
+
+        if(arr[midIndex] > arr[midIndex+1]) {
+            merge(arr, leftIndex, midIndex + 1, rightIndex);
+        }
+    }
+
+    /**
+     * 合并arr[leftIndex, midIndex)与arr[midIndex, rightIndex]两段有序区间
+     * @param arr array to be merged
+     * @param leftIndex left index
+     * @param midIndex middle index
+     * @param rightIndex right index
+     */
+    private static void merge(int[] arr, int leftIndex, int midIndex, int rightIndex) {
+        int[] temp = Arrays.copyOfRange(arr, leftIndex, rightIndex+1);
+
+        int i = leftIndex, j = midIndex, k = leftIndex;
+        while(i < midIndex && j <= rightIndex){
+            if(temp[i-leftIndex] <= temp[j-leftIndex]){
+                arr[k++] = temp[i-leftIndex];
+                i++;
+            }else{
+                arr[k++] = temp[j-leftIndex];
+                j++;
+            }
+        }
+
+        while(i < midIndex){
+            arr[k++] = temp[i-leftIndex];
+            i++;
+        }
+        while(j <= rightIndex){
+            arr[k++] = temp[j-leftIndex];
+            j++;
+        }
+    }
+
+    /**
+     * int[]版本的自底向上归并排序。
+     * @param arr arr to be sorted
+     */
+    public static void mergeSortBottomUp(int[] arr){
+        for (int size = 1; size < arr.length ; size *= 2) {
+            for (int i = 0; i + size < arr.length; i += 2*size) {
+                if(arr[i+size-1] > arr[i+size]){
+                    merge(arr, i, i + size, Math.min(i + 2 * size - 1, arr.length - 1));
+                }
+            }
+        }
+    }
+
+    /**
+     * int[]版本的bufferedMergeSort，只开辟一个辅助数组。
+     * @param arr array to be sorted
+     */
+    public static void bufferedMergeSort(int[] arr){
+        bufferedMergeSort(arr, new int[arr.length]);
+    }
+
+    /**
+     * int[]版本的bufferedMergeSort，使用调用者提供的辅助数组，排序过程中不分配内存。
+     * @param arr array to be sorted
+     * @param buffer 辅助数组，长度不小于arr.length
+     */
+    public static void bufferedMergeSort(int[] arr, int[] buffer){
+        if(buffer.length < arr.length){
+            throw new IllegalArgumentException("buffer is smaller than the array.");
+        }
+        System.arraycopy(arr, 0, buffer, 0, arr.length);
+        bufferedMergeSort(buffer, arr, 0, arr.length - 1);
+    }
+
+    private static void bufferedMergeSort(int[] src, int[] dest, int leftIndex, int rightIndex) {
+        if(rightIndex - leftIndex + 1 <= INSERTION_SORT_THRESHOLD){
+            //小区间使用排序网络，比插入排序少了分支预测失败
+            SortingNetwork.sort(dest, leftIndex, rightIndex + 1);
+            return;
+        }
+        int midIndex = leftIndex + (rightIndex - leftIndex)/2;
+
+        bufferedMergeSort(dest, src, leftIndex, midIndex);
+        bufferedMergeSort(dest, src, midIndex+1, rightIndex);
+
+        if(src[midIndex] <= src[midIndex+1]){
+            System.arraycopy(src, leftIndex, dest, leftIndex, rightIndex - leftIndex + 1);
+            return;
+        }
+        merge(src, dest, leftIndex, midIndex + 1, rightIndex);
+    }
+
+    /**
+     * 合并src[leftIndex, midIndex)与src[midIndex, rightIndex]两段有序区间，结果写入dest的相同位置
+     */
+    private static void merge(int[] src, int[] dest, int leftIndex, int midIndex, int rightIndex) {
+        int i = leftIndex, j = midIndex, k = leftIndex;
+        while(i < midIndex && j <= rightIndex){
+            if(src[i] <= src[j]){
+                dest[k++] = src[i++];
+            }else{
+                dest[k++] = src[j++];
+            }
+        }
+        System.arraycopy(src, i, dest, k, midIndex - i);
+        System.arraycopy(src, j, dest, k, rightIndex + 1 - j);
+    }
+
+    /**
+     * int[]版本的bufferedMergeSortBottomUp，只开辟一个辅助数组。
+     * @param arr array to be sorted
+     */
+    public static void bufferedMergeSortBottomUp(int[] arr){
+        bufferedMergeSortBottomUp(arr, new int[arr.length]);
+    }
+
+    /**
+     * int[]版本的bufferedMergeSortBottomUp，使用调用者提供的辅助数组，排序过程中不分配内存。
+     * @param arr array to be sorted
+     * @param buffer 辅助数组，长度不小于arr.length
+     */
+    public static void bufferedMergeSortBottomUp(int[] arr, int[] buffer){
+        if(buffer.length < arr.length){
+            throw new IllegalArgumentException("buffer is smaller than the array.");
+        }
+        int n = arr.length;
+        for (int i = 0; i < n; i += INSERTION_SORT_THRESHOLD) {
+            SortingNetwork.sort(arr, i, Math.min(i + INSERTION_SORT_THRESHOLD, n));
+        }
+
+        int[] src = arr, dest = buffer;
+        for (int size = INSERTION_SORT_THRESHOLD; size < n; size *= 2) {
+            for (int i = 0; i < n; i += 2*size) {
+                int mid = Math.min(i + size, n), right = Math.min(i + 2 * size, n) - 1;
+                if(mid > right || src[mid-1] <= src[mid]){
+                    System.arraycopy(src, i, dest, i, right - i + 1);
+                }else{
+                    merge(src, dest, i, mid, right);
+                }
+            }
+            int[] temp = src;
+            src = dest;
+            dest = temp;
+        }
+        if(src != arr){
+            System.arraycopy(src, 0, arr, 0, n);
+        }
+    }
+
+    /**
+     * int[]版本的并行样本排序，使用公共线程池ForkJoinPool.commonPool()。
+     * @param arr array to be sorted
+     */
+    public static void parallelSampleSort(int[] arr){
+        parallelSampleSort(arr, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * int[]版本的并行样本排序，步骤与parallelSampleSort(T[], ForkJoinPool, Comparator)相同。
+     * @param arr array to be sorted
+     * @param pool 执行排序任务的线程池
+     */
+    public static void parallelSampleSort(int[] arr, ForkJoinPool pool){
+        int n = arr.length;
+        int buckets = sampleSortBuckets(n, pool.getParallelism());
+        if(buckets < 2){
+            bufferedMergeSort(arr);
+            return;
+        }
+        int logBuckets = log2(buckets);
+
+        int[] sample = new int[buckets * SAMPLE_SORT_OVERSAMPLING];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < sample.length; i++) {
+            sample[i] = arr[random.nextInt(n)];
+        }
+        bufferedMergeSort(sample);
+        int[] tree = new int[buckets];
+        for (int j = 1; j < buckets; j++) {
+            tree[j] = sample[splitterRank(j, logBuckets) * SAMPLE_SORT_OVERSAMPLING - 1];
+        }
+
+        int blocks = sampleSortBlocks(n, pool.getParallelism());
+        int blockSize = (n + blocks - 1) / blocks;
+        byte[] oracle = new byte[n];
+        int[][] counts = new int[blocks][buckets];
+        pool.invoke(new ParallelForTask(0, blocks, b -> {
+            int[] count = counts[b];
+            for (int i = b * blockSize, to = Math.min(n, i + blockSize); i < to; i++) {
+                int e = arr[i];
+                int j = 1;
+                for (int level = 0; level < logBuckets; level++) {
+                    j = 2 * j + (e > tree[j] ? 1 : 0);
+                }
+                oracle[i] = (byte) (j - buckets);
+                count[j - buckets]++;
+            }
+        }));
+
+        int[] bucketStart = sampleSortOffsets(counts, buckets);
+        int[] buffer = new int[n];
+        pool.invoke(new ParallelForTask(0, blocks, b -> {
+            int[] offset = counts[b];
+            for (int i = b * blockSize, to = Math.min(n, i + blockSize); i < to; i++) {
+                buffer[offset[oracle[i] & 0xFF]++] = arr[i];
+            }
+        }));
+
+        pool.invoke(new ParallelForTask(0, buckets, k -> {
+            int from = bucketStart[k], to = bucketStart[k + 1];
+            if(from == to){
+                return;
+            }
+            System.arraycopy(buffer, from, arr, from, to - from);
+            bufferedMergeSort(buffer, arr, from, to - 1);
+        }));
+    }
+
+    /**
+     * int[]版本的单轴快排。
+     * @param arr arr to be sorted
+     */
+    public static void quickSort(int[] arr){
+        quickSort(arr, 0, arr.length - 1);
+    }
+
+    public static void randomizedQuickSort(int[] arr){
+        knuthShuffle(arr);
+        quickSort(arr, 0, arr.length - 1);
+    }
+
+    private static void quickSort(int[] arr, int leftIndex, int rightIndex) {
+        if(leftIndex >= rightIndex){
+            return;
+        }
+        int pivotIndex = partition(arr, leftIndex, rightIndex);
+        quickSort(arr, leftIndex, pivotIndex - 1);
+        quickSort(arr, pivotIndex + 1, rightIndex);
+    }
+
+    private static int partition(int[] arr, int leftIndex, int rightIndex) {
+        int pivot = arr[leftIndex];
+
+        int l = leftIndex + 1, r = rightIndex;
+        while(l <= r){
+            while(l <= r && arr[l] <= pivot){
+                l++;
+            }
+            while(l <= r && arr[r] >= pivot){
+                r--;
+            }
+
+            if(l <= r){
+                swap(arr, l, r);
+            }
+        }
+        swap(arr, leftIndex, r);
+
+        return r;
+    }
+
+    private static void knuthShuffle(int[] arr){
+        for(int i = arr.length-1; i >= 0; i--){
+            swap(arr, i, (int)(Math.random()*(i+1)));
+        }
+    }
+
+    /**
+     * int[]版本的堆排序。
+     * @param arr array to be sorted
+     */
+    public static void heapSort(int[] arr){
+        for (int i = (arr.length - 2)/2; i >= 0 ; i--) {
+            shiftDown(arr, i, arr.length);
+        }
+        for (int i = arr.length-1;  i > 0; i--) {
+            swap(arr, 0, i);
+            shiftDown(arr, 0, i);
+        }
+    }
+
+    /**
+     * 对索引为i的节点执行下沉操作，堆的范围为[0, rightBound)
+     * @param arr array
+     * @param i 待下沉节点索引
+     * @param rightBound 每次下沉的右边界（开区间）
+     */
+    private static void shiftDown(int[] arr, int i, int rightBound) {
+        while (2*i+1 < rightBound){
+            int temp = 2*i+1;
+            if(temp + 1 < rightBound && arr[temp+1] > arr[temp]) {
+                temp++;
+            }
+            if(arr[i] >= arr[temp]){
+                break;
+            }
+            swap(arr, i, temp);
+            i = temp;
+        }
+    }
+
+    /**
+     * int[]版本的Floyd堆排序，使用二叉堆。
+     * @param arr array to be sorted
+     */
+    public static void floydHeapSort(int[] arr){
+        floydHeapSort(arr, 2);
+    }
+
+    /**
+     * int[]版本的Floyd堆排序，说明见floydHeapSort(T[])。
+     * @param arr array to be sorted
+     * @param arity 堆的叉数，常用2或4
+     */
+    public static void floydHeapSort(int[] arr, int arity){
+        if(arity < 2){
+            throw new IllegalArgumentException("arity should be at least 2.");
+        }
+        int n = arr.length;
+        for (int i = n / arity; i >= 0; i--) {
+            if(i < n){
+                floydShiftDown(arr, i, arr[i], n, arity);
+            }
+        }
+        for (int end = n - 1; end > 0; end--) {
+            int e = arr[end];
+            arr[end] = arr[0];
+            floydShiftDown(arr, 0, e, end, arity);
+        }
+    }
+
+    private static void floydShiftDown(int[] arr, int hole, int e, int heapSize, int arity){
+        int top = hole;
+        int lastParent = heapSize >= 2 ? (heapSize - 2) / arity : -1;
+        while (hole <= lastParent) {
+            int child = arity * hole + 1, max = child;
+            if(arity == 2){
+                if(child + 1 < heapSize && arr[child + 1] > arr[child]){
+                    max++;
+                }
+            }else{
+                for (int j = child + 1, last = Math.min(child + arity, heapSize); j < last; j++) {
+                    if(arr[j] > arr[max]){
+                        max = j;
+                    }
+                }
+            }
+            arr[hole] = arr[max];
+            hole = max;
+        }
+        while (hole > top) {
+            int parent = (hole - 1) / arity;
+            if(arr[parent] >= e){
+                break;
+            }
+            arr[hole] = arr[parent];
+            hole = parent;
+        }
+        arr[hole] = e;
+    }
+
+    private static void swap(int[] arr, int i, int j) {
+        int temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+
+    /**
+     * long[]版本的插入排序。
+     * @param arr array to be sorted
+     */
+    public static void insertionSort(long[] arr){
+        insertionSort(arr, 0, arr.length - 1);
+    }
+
+    /**
+     * 对[leftIndex, rightIndex]区间执行插入排序
+     * @param arr array to be sorted
+     * @param leftIndex left index
+     * @param rightIndex right index
+     */
+    private static void insertionSort(long[] arr, int leftIndex, int rightIndex){
+        for (int i = leftIndex + 1; i <= rightIndex; i++) {
+            long e = arr[i];
+            int j;
+            for (j = i; j > leftIndex && arr[j-1] > e; j--) {
+                arr[j] = arr[j-1];
+            }
+            arr[j] = e;
+        }
+    }
+
+    /**
+     * long[]版本的自顶向下归并排序。
+     * @param arr array to be sorted
+     */
+    public static void mergeSort(long[] arr){
+        mergeSort(arr, 0, arr.length-1);
+    }
+
+    private static void mergeSort(long[] arr, int leftIndex, int rightIndex) {
+        if(leftIndex >= rightIndex){
+            return;
+        }
+        int midIndex = leftIndex + (rightIndex - leftIndex)/2;
+
+        mergeSort(arr, leftIndex, midIndex);
+        mergeSort(arr, midIndex+1, rightIndex);
+
+        if(arr[midIndex] > arr[midIndex+1]) {
+            merge(arr, leftIndex, midIndex + 1, rightIndex);
+        }
+    }
+
+    /**
+     * 合并arr[leftIndex, midIndex)与arr[midIndex, rightIndex]两段有序区间
+     * @param arr array to be merged
+     * @param leftIndex left index
+     * @param midIndex middle index
+     * @param rightIndex right index
+     */
+    private static void merge(long[] arr, int leftIndex, int midIndex, int rightIndex) {
+        long[] temp = Arrays.copyOfRange(arr, leftIndex, rightIndex+1);
+
+        int i = leftIndex, j = midIndex, k = leftIndex;
+        while(i < midIndex && j <= rightIndex){
+            if(temp[i-leftIndex] <= temp[j-leftIndex]){
+                arr[k++] = temp[i-leftIndex];
+                i++;
+            }else{
+                arr[k++] = temp[j-leftIndex];
+                j++;
+            }
+        }
+
+        while(i < midIndex){
+            arr[k++] = temp[i-leftIndex];
+            i++;
+        }
+        while(j <= rightIndex){
+            arr[k++] = temp[j-leftIndex];
+            j++;
+        }
+    }
+
+    /**
+     * long[]版本的自底向上归并排序。
+     * @param arr arr to be sorted
+     */
+    public static void mergeSortBottomUp(long[] arr){
+        for (int size = 1; size < arr.length ; size *= 2) {
+            for (int i = 0; i + size < arr.length; i += 2*size) {
+                if(arr[i+size-1] > arr[i+size]){
+                    merge(arr, i, i + size, Math.min(i + 2 * size - 1, arr.length - 1));
+                }
+            }
+        }
+    }
+
+    /**
+     * long[]版本的bufferedMergeSort。
+     * @param arr array to be sorted
+     */
+    public static void bufferedMergeSort(long[] arr){
+        bufferedMergeSort(arr, new long[arr.length]);
+    }
+
+    /**
+     * long[]版本的bufferedMergeSort，使用调用者提供的辅助数组。
+     * @param arr array to be sorted
+     * @param buffer 辅助数组，长度不小于arr.length
+     */
+    public static void bufferedMergeSort(long[] arr, long[] buffer){
+        if(buffer.length < arr.length){
+            throw new IllegalArgumentException("buffer is smaller than the array.");
+        }
+        System.arraycopy(arr, 0, buffer, 0, arr.length);
+        bufferedMergeSort(buffer, arr, 0, arr.length - 1);
+    }
+
+    private static void bufferedMergeSort(long[] src, long[] dest, int leftIndex, int rightIndex) {
+        if(rightIndex - leftIndex + 1 <= INSERTION_SORT_THRESHOLD){
+            SortingNetwork.sort(dest, leftIndex, rightIndex + 1);
+            return;
+        }
+        int midIndex = leftIndex + (rightIndex - leftIndex)/2;
+
+        bufferedMergeSort(dest, src, leftIndex, midIndex);
+        bufferedMergeSort(dest, src, midIndex+1, rightIndex);
+
+        if(src[midIndex] <= src[midIndex+1]){
+            System.arraycopy(src, leftIndex, dest, leftIndex, rightIndex - leftIndex + 1);
+            return;
+        }
+        merge(src, dest, leftIndex, midIndex + 1, rightIndex);
+    }
+
+    /**
+     * 合并src[leftIndex, midIndex)与src[midIndex, rightIndex]两段有序区间，结果写入dest的相同位置
+     */
+    private static void merge(long[] src, long[] dest, int leftIndex, int midIndex, int rightIndex) {
+        int i = leftIndex, j = midIndex, k = leftIndex;
+        while(i < midIndex && j <= rightIndex){
+            if(src[i] <= src[j]){
+                dest[k++] = src[i++];
+            }else{
+                dest[k++] = src[j++];
+            }
+        }
+        System.arraycopy(src, i, dest, k, midIndex - i);
+        System.arraycopy(src, j, dest, k, rightIndex + 1 - j);
+    }
+
+    /**
+     * long[]版本的bufferedMergeSortBottomUp。
+     * @param arr array to be sorted
+     */
+    public static void bufferedMergeSortBottomUp(long[] arr){
+        bufferedMergeSortBottomUp(arr, new long[arr.length]);
+    }
+
+    /**
+     * long[]版本的bufferedMergeSortBottomUp，使用调用者提供的辅助数组。
+     * @param arr array to be sorted
+     * @param buffer 辅助数组，长度不小于arr.length
+     */
+    public static void bufferedMergeSortBottomUp(long[] arr, long[] buffer){
+        if(buffer.length < arr.length){
+            throw new IllegalArgumentException("buffer is smaller than the array.");
+        }
+        int n = arr.length;
+        for (int i = 0; i < n; i += INSERTION_SORT_THRESHOLD) {
+            SortingNetwork.sort(arr, i, Math.min(i + INSERTION_SORT_THRESHOLD, n));
+        }
+
+        long[] src = arr, dest = buffer;
+        for (int size = INSERTION_SORT_THRESHOLD; size < n; size *= 2) {
+            for (int i = 0; i < n; i += 2*size) {
+                int mid = Math.min(i + size, n), right = Math.min(i + 2 * size, n) - 1;
+                if(mid > right || src[mid-1] <= src[mid]){
+                    System.arraycopy(src, i, dest, i, right - i + 1);
+                }else{
+                    merge(src, dest, i, mid, right);
+                }
+            }
+            long[] temp = src;
+            src = dest;
+            dest = temp;
+        }
+        if(src != arr){
+            System.arraycopy(src, 0, arr, 0, n);
+        }
+    }
+
+    /**
+     * long[]版本的单轴快排。
+     * @param arr arr to be sorted
+     */
+    public static void quickSort(long[] arr){
+        quickSort(arr, 0, arr.length - 1);
+    }
+
+    public static void randomizedQuickSort(long[] arr){
+        knuthShuffle(arr);
+        quickSort(arr, 0, arr.length - 1);
+    }
+
+    private static void quickSort(long[] arr, int leftIndex, int rightIndex) {
+        if(leftIndex >= rightIndex){
+            return;
+        }
+        int pivotIndex = partition(arr, leftIndex, rightIndex);
+        quickSort(arr, leftIndex, pivotIndex - 1);
+        quickSort(arr, pivotIndex + 1, rightIndex);
+    }
+
+    private static int partition(long[] arr, int leftIndex, int rightIndex) {
+        long pivot = arr[leftIndex];
+
+        int l = leftIndex + 1, r = rightIndex;
+        while(l <= r){
+            while(l <= r && arr[l] <= pivot){
+                l++;
+            }
+            while(l <= r && arr[r] >= pivot){
+                r--;
+            }
+
+            if(l <= r){
+                swap(arr, l, r);
+            }
+        }
+        swap(arr, leftIndex, r);
+
+        return r;
+    }
+
+    private static void knuthShuffle(long[] arr){
+        for(int i = arr.length-1; i >= 0; i--){
+            swap(arr, i, (int)(Math.random()*(i+1)));
+        }
+    }
+
+    /**
+     * long[]版本的堆排序。
+     * @param arr array to be sorted
+     */
+    public static void heapSort(long[] arr){
+        for (int i = (arr.length - 2)/2; i >= 0 ; i--) {
+            shiftDown(arr, i, arr.length);
+        }
+        for (int i = arr.length-1;  i > 0; i--) {
+            swap(arr, 0, i);
+            shiftDown(arr, 0, i);
+        }
+    }
+
+    /**
+     * 对索引为i的节点执行下沉操作，堆的范围为[0, rightBound)
+     * @param arr array
+     * @param i 待下沉节点索引
+     * @param rightBound 每次下沉的右边界（开区间）
+     */
+    private static void shiftDown(long[] arr, int i, int rightBound) {
+        while (2*i+1 < rightBound){
+            int temp = 2*i+1;
+            if(temp + 1 < rightBound && arr[temp+1] > arr[temp]) {
+                temp++;
+            }
+            if(arr[i] >= arr[temp]){
+                break;
+            }
+            swap(arr, i, temp);
+            i = temp;
+        }
+    }
+
+    private static void swap(long[] arr, int i, int j) {
+        long temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+
+    /**
+     * double[]版本的插入排序。
      * @param arr array to be sorted
-     * @param <T> Type of array
      */
-    public static <T extends Comparable<T>> void bubbleSort(T[] arr){
-        for(int i = arr.length - 1; i > 0; i--){
-            for(int j = 0; j < i; j++){
-                if(arr[j].compareTo(arr[j+1]) > 0){
-                    swap(arr, j , j+1);
-                }
-            }
-        }
+    public static void insertionSort(double[] arr){
+        insertionSort(arr, 0, arr.length - 1);
     }
 
     /**
-     * 插入排序：外层循环遍历数组（选择某张牌），内层循环将外层循环选择的牌插入到前面已经排好序的牌中。
-     * 插入排序在样本较小且基本有序时效率较高。
+     * 对[leftIndex, rightIndex]区间执行插入排序
      * @param arr array to be sorted
-     * @param <T> Type of array
+     * @param leftIndex left index
+     * @param rightIndex right index
      */
-    public static <T extends Comparable<T>> void insertionSort(T[] arr){
-        for (int i = 1; i < arr.length; i++) {
-            //寻找arr[i]在其之前的插入位置
-            T e = arr[i];
-            //j保存e应该插入的位置
+    private static void insertionSort(double[] arr, int leftIndex, int rightIndex){
+        for (int i = leftIndex + 1; i <= rightIndex; i++) {
+            double e = arr[i];
             int j;
-            for (j = i; j > 0 && arr[j-1].compareTo(e) > 0; j--) {
-                //向后移动一个元素
+            for (j = i; j > leftIndex && less(e, arr[j-1]); j--) {
                 arr[j] = arr[j-1];
             }
             arr[j] = e;
-//            for (int j = i; j > 0 ; j--) {
-//                //向前两两比较并交换
-//                if(arr[j].compareTo(arr[j-1]) < 0){
-//                    swap(arr, j, j-1);
-//                }else{
-//                    break;
-//                }
-//            }
         }
     }
 
     /**
-     * 自顶向下的归并排序。归并排序是稳定的，Arrays中对对象排序就是使用的归并排序。JDK中的归并排序是经过大量优化的，叫TomSort,
-     * TimSort属于归并与插入的混合排序算法。
+     * double[]版本的自顶向下归并排序。
      * @param arr array to be sorted
-     * @param <T> Type of array
      */
-    public static <T extends Comparable<T>> void mergeSort(T[] arr){
+    public static void mergeSort(double[] arr){
         mergeSort(arr, 0, arr.length-1);
     }
 
-    /**
-     * 递归方法，归并排序
-     * @param arr array to be sorted
-     * @param leftIndex left index
-     * @param rightIndex right index
-     * @param <T> Type of array
-     */
-    private static <T extends Comparable<T>> void mergeSort(T[] arr, int leftIndex, int rightIndex) {
+    private static void mergeSort(double[] arr, int leftIndex, int rightIndex) {
         if(leftIndex >= rightIndex){
             return;
         }
-        //计算左边界与右边界的中点，注意不能使用(leftIndex+rightIndex)/2，以防止整型溢出
         int midIndex = leftIndex + (rightIndex - leftIndex)/2;
 
-        //对数组左半部分排序
         mergeSort(arr, leftIndex, midIndex);
-        //对数组右半部分排序
         mergeSort(arr, midIndex+1, rightIndex);
 
-        //合并已经有序的左右两半部分数组
-        if(arr[midIndex].compareTo(arr[midIndex+1]) > 0) {
+        if(less(arr[midIndex+1], arr[midIndex])) {
             merge(arr, leftIndex, midIndex + 1, rightIndex);
         }
     }
 
     /**
-     * 额外开辟一个数组，借助该数组合并两半部分有序的数组
+     * 合并arr[leftIndex, midIndex)与arr[midIndex, rightIndex]两段有序区间
      * @param arr array to be merged
      * @param leftIndex left index
      * @param midIndex middle index
      * @param rightIndex right index
      */
-    private static <T extends Comparable<T>> void merge(T[] arr, int leftIndex, int midIndex, int rightIndex) {
-        //只复制[leftIndex, rightIndex]的值，注意copyOfRange的to参数是开区间，因此此处需要+1
-        T[] temp = Arrays.copyOfRange(arr, leftIndex, rightIndex+1);
+    private static void merge(double[] arr, int leftIndex, int midIndex, int rightIndex) {
+        double[] temp = Arrays.copyOfRange(arr, leftIndex, rightIndex+1);
 
         int i = leftIndex, j = midIndex, k = leftIndex;
         while(i < midIndex && j <= rightIndex){
-            if(temp[i-leftIndex].compareTo(temp[j-leftIndex]) <= 0){
+            if(!less(temp[j-leftIndex], temp[i-leftIndex])){
                 arr[k++] = temp[i-leftIndex];
                 i++;
             }else{
@@ -131,7 +2690,6 @@ public class Utils {
             }
         }
 
-        //以下两个循环只可能执行其中某一个
         while(i < midIndex){
             arr[k++] = temp[i-leftIndex];
             i++;
@@ -140,18 +2698,16 @@ public class Utils {
             arr[k++] = temp[j-leftIndex];
             j++;
         }
-
     }
 
     /**
-     * 自底向上的归并排序，迭代实现。
+     * double[]版本的自底向上归并排序。
      * @param arr arr to be sorted
-     * @param <T> type of elements
      */
-    public static <T extends Comparable<T>> void mergeSortBottomUp(T[] arr){
+    public static void mergeSortBottomUp(double[] arr){
         for (int size = 1; size < arr.length ; size *= 2) {
             for (int i = 0; i + size < arr.length; i += 2*size) {
-                if(arr[i+size-1].compareTo(arr[i+size]) > 0){
+                if(less(arr[i+size], arr[i+size-1])){
                     merge(arr, i, i + size, Math.min(i + 2 * size - 1, arr.length - 1));
                 }
             }
@@ -159,52 +2715,131 @@ public class Utils {
     }
 
     /**
-     * 单轴快排。数组近乎有序时，退化为时间复杂度为n平方的算法
+     * double[]版本的bufferedMergeSort。
+     * @param arr array to be sorted
+     */
+    public static void bufferedMergeSort(double[] arr){
+        bufferedMergeSort(arr, new double[arr.length]);
+    }
+
+    /**
+     * double[]版本的bufferedMergeSort，使用调用者提供的辅助数组。
+     * @param arr array to be sorted
+     * @param buffer 辅助数组，长度不小于arr.length
+     */
+    public static void bufferedMergeSort(double[] arr, double[] buffer){
+        if(buffer.length < arr.length){
+            throw new IllegalArgumentException("buffer is smaller than the array.");
+        }
+        System.arraycopy(arr, 0, buffer, 0, arr.length);
+        bufferedMergeSort(buffer, arr, 0, arr.length - 1);
+    }
+
+    private static void bufferedMergeSort(double[] src, double[] dest, int leftIndex, int rightIndex) {
+        if(rightIndex - leftIndex + 1 <= INSERTION_SORT_THRESHOLD){
+            SortingNetwork.sort(dest, leftIndex, rightIndex + 1);
+            return;
+        }
+        int midIndex = leftIndex + (rightIndex - leftIndex)/2;
+
+        bufferedMergeSort(dest, src, leftIndex, midIndex);
+        bufferedMergeSort(dest, src, midIndex+1, rightIndex);
+
+        if(!less(src[midIndex+1], src[midIndex])){
+            System.arraycopy(src, leftIndex, dest, leftIndex, rightIndex - leftIndex + 1);
+            return;
+        }
+        merge(src, dest, leftIndex, midIndex + 1, rightIndex);
+    }
+
+    /**
+     * 合并src[leftIndex, midIndex)与src[midIndex, rightIndex]两段有序区间，结果写入dest的相同位置
+     */
+    private static void merge(double[] src, double[] dest, int leftIndex, int midIndex, int rightIndex) {
+        int i = leftIndex, j = midIndex, k = leftIndex;
+        while(i < midIndex && j <= rightIndex){
+            if(!less(src[j], src[i])){
+                dest[k++] = src[i++];
+            }else{
+                dest[k++] = src[j++];
+            }
+        }
+        System.arraycopy(src, i, dest, k, midIndex - i);
+        System.arraycopy(src, j, dest, k, rightIndex + 1 - j);
+    }
+
+    /**
+     * double[]版本的bufferedMergeSortBottomUp。
+     * @param arr array to be sorted
+     */
+    public static void bufferedMergeSortBottomUp(double[] arr){
+        bufferedMergeSortBottomUp(arr, new double[arr.length]);
+    }
+
+    /**
+     * double[]版本的bufferedMergeSortBottomUp，使用调用者提供的辅助数组。
+     * @param arr array to be sorted
+     * @param buffer 辅助数组，长度不小于arr.length
+     */
+    public static void bufferedMergeSortBottomUp(double[] arr, double[] buffer){
+        if(buffer.length < arr.length){
+            throw new IllegalArgumentException("buffer is smaller than the array.");
+        }
+        int n = arr.length;
+        for (int i = 0; i < n; i += INSERTION_SORT_THRESHOLD) {
+            SortingNetwork.sort(arr, i, Math.min(i + INSERTION_SORT_THRESHOLD, n));
+        }
+
+        double[] src = arr, dest = buffer;
+        for (int size = INSERTION_SORT_THRESHOLD; size < n; size *= 2) {
+            for (int i = 0; i < n; i += 2*size) {
+                int mid = Math.min(i + size, n), right = Math.min(i + 2 * size, n) - 1;
+                if(mid > right || !less(src[mid], src[mid-1])){
+                    System.arraycopy(src, i, dest, i, right - i + 1);
+                }else{
+                    merge(src, dest, i, mid, right);
+                }
+            }
+            double[] temp = src;
+            src = dest;
+            dest = temp;
+        }
+        if(src != arr){
+            System.arraycopy(src, 0, arr, 0, n);
+        }
+    }
+
+    /**
+     * double[]版本的单轴快排。
      * @param arr arr to be sorted
-     * @param <T> type of elements
      */
-    public static <T extends Comparable<T>> void quickSort(T[] arr){
+    public static void quickSort(double[] arr){
         quickSort(arr, 0, arr.length - 1);
     }
 
-    public static <T extends Comparable<T>> void randomizedQuickSort(T[] arr){
-        //使用Knuth算法打乱数组，优化快速排序
+    public static void randomizedQuickSort(double[] arr){
         knuthShuffle(arr);
         quickSort(arr, 0, arr.length - 1);
     }
 
-    private static <T extends Comparable<T>> void quickSort(T[] arr, int leftIndex, int rightIndex) {
+    private static void quickSort(double[] arr, int leftIndex, int rightIndex) {
         if(leftIndex >= rightIndex){
             return;
         }
-        //轴左边的元素小于它，右边的元素大于它
         int pivotIndex = partition(arr, leftIndex, rightIndex);
         quickSort(arr, leftIndex, pivotIndex - 1);
         quickSort(arr, pivotIndex + 1, rightIndex);
     }
 
-    /**
-     * let arr[leftIndex...pivotIndex-1] < arr[pivotIndex], arr[pivotIndex+1...rightIndex] > arr[pivotIndex]
-     * @param arr array to be sorted
-     * @param leftIndex left boundary index
-     * @param rightIndex right boundary index
-     * @param <T> type of elements
-     * @return pivot index
-     */
-    private static <T extends Comparable<T>> int partition(T[] arr, int leftIndex, int rightIndex) {
-        //选定第一个元素作为轴
-        T pivot = arr[leftIndex];
+    private static int partition(double[] arr, int leftIndex, int rightIndex) {
+        double pivot = arr[leftIndex];
 
-        //由于pivot选定为左边界，因此这里的l需要+1
         int l = leftIndex + 1, r = rightIndex;
-        //将比pivot小的元素和比pivot大的元素划分为两部分
         while(l <= r){
-            //从左往右找到第一个比pivot大的元素的索引
-            while(l <= r && arr[l].compareTo(pivot) <= 0){
+            while(l <= r && !less(pivot, arr[l])){
                 l++;
             }
-            //从右往左找到第一个比pivot小的元素的索引
-            while(l <= r && arr[r].compareTo(pivot) >= 0){
+            while(l <= r && !less(arr[r], pivot)){
                 r--;
             }
 
@@ -212,88 +2847,68 @@ public class Utils {
                 swap(arr, l, r);
             }
         }
-        //pivot换到中间，完成一次partition
         swap(arr, leftIndex, r);
 
         return r;
     }
 
-    /**
-     * Knuth洗牌算法，用于随机化数组元素，优化快速排序。
-     * 该算法保证了每一个元素出现在每一个位置的概率相等。
-     * @param arr array to be randomized
-     * @param <T> type of elements
-     */
-    private static <T extends Comparable<T>> void knuthShuffle(T[] arr){
+    private static void knuthShuffle(double[] arr){
         for(int i = arr.length-1; i >= 0; i--){
-            //arr[i]与0-i之间的随机一个数交换
             swap(arr, i, (int)(Math.random()*(i+1)));
         }
     }
 
     /**
-     * 堆排序。
+     * double[]版本的堆排序。
      * @param arr array to be sorted
-     * @param <T> type of elements
      */
-    public static <T extends Comparable<T>> void heapSort(T[] arr){
-        heapify(arr);
-        //逆序遍历数组，每次与堆顶元素交换，然后堆顶元素执行下沉(shiftDown)操作
-        for (int i = arr.length-1;  i >= 0; i--) {
+    public static void heapSort(double[] arr){
+        for (int i = (arr.length - 2)/2; i >= 0 ; i--) {
+            shiftDown(arr, i, arr.length);
+        }
+        for (int i = arr.length-1;  i > 0; i--) {
             swap(arr, 0, i);
-            //每次下沉的边界为i，否则又会打乱顺序
             shiftDown(arr, 0, i);
         }
     }
 
     /**
-     * 由于任意数组都可以看作一棵完全二叉树，因此heapify操作可将任意数组堆化。所谓堆化，就是将任意数组转化为二叉堆。
-     * heapify的实现：从最后一个非叶子节点开始，依次对每一个非叶子节点执行shift down操作即可。
-     * 最后一个非叶子节点的索引定位：若数组下标从0开始，则为(arr.length-1-1)/2。
-     * @param arr array to be heapified
-     * @param <T> type of elements
-     */
-    private static <T extends Comparable<T>> void heapify(T[] arr) {
-        for (int i = (arr.length - 2)/2; i >= 0 ; i--) {
-            shiftDown(arr, i, arr.length-1);
-        }
-    }
-
-    /**
-     * 对索引为i的节点执行下沉操作。这里构建的是大根堆。
+     * 对索引为i的节点执行下沉操作，堆的范围为[0, rightBound)
      * @param arr array
      * @param i 待下沉节点索引
-     * @param rightBound 每次下沉的右边界
-     * @param <T> type of elements
+     * @param rightBound 每次下沉的右边界（开区间）
      */
-    private static <T extends Comparable<T>> void shiftDown(T[] arr, int i, int rightBound) {
+    private static void shiftDown(double[] arr, int i, int rightBound) {
         while (2*i+1 < rightBound){
             int temp = 2*i+1;
-            //判断右孩子索引是否越界
-            if(temp + 1 < rightBound && arr[temp+1].compareTo(arr[temp]) > 0) {
-                //若右孩子大于左孩子，则temp改为右孩子索引
+            if(temp + 1 < rightBound && less(arr[temp], arr[temp+1])) {
                 temp++;
             }
-
-            //待下沉节点若大于其左右孩子，循环终止；否则与其左右孩子中较大的一个交换。
-            if(arr[i].compareTo(arr[temp]) >= 0){
+            if(!less(arr[i], arr[temp])){
                 break;
             }
             swap(arr, i, temp);
-
-            //继续下沉
             i = temp;
         }
     }
 
-    private static <T extends Comparable<T>> void swap(T[] arr, int i, int j) {
-        T temp = arr[i];
+    /**
+     * 按Double.compare的顺序比较：-0.0小于0.0，NaN大于所有其他值（包括正无穷），与Arrays.sort(double[])一致。
+     * 直接使用<比较时NaN与任何值比较都为false，会使分区的扫描停在NaN上而无法前进，归并和堆的结果也会无序。
+     */
+    private static boolean less(double a, double b){
+        return Double.compare(a, b) < 0;
+    }
+
+    private static void swap(double[] arr, int i, int j) {
+        double temp = arr[i];
         arr[i] = arr[j];
         arr[j] = temp;
     }
 
     /**
      * 生成有n个元素的随机数组,每个元素的随机范围为[rangeL, rangeR]
+     * 随机数来自ThreadLocalRandom，多线程生成时没有竞争，但结果不可复现；需要固定种子或更多分布时请使用DataGenerator。
      * @param n number of elements
      * @param rangeL left range
      * @param rangeR right range
@@ -304,7 +2919,7 @@ public class Utils {
 
         Integer[] arr = new Integer[n];
         for (int i = 0; i < n; i++){
-            arr[i] = (int) (Math.random() * (rangeR - rangeL + 1) + rangeL);
+            arr[i] = (int) ThreadLocalRandom.current().nextLong(rangeL, (long) rangeR + 1);
         }
 
         return arr;
@@ -325,8 +2940,8 @@ public class Utils {
             arr[i] = i;
         }
         for( int i = 0 ; i < swapTimes ; i ++ ){
-            int a = (int)(Math.random() * n);
-            int b = (int)(Math.random() * n);
+            int a = ThreadLocalRandom.current().nextInt(n);
+            int b = ThreadLocalRandom.current().nextInt(n);
             int t = arr[a];
             arr[a] = arr[b];
             arr[b] = t;
@@ -334,6 +2949,87 @@ public class Utils {
         return arr;
     }
 
+    /**
+     * 生成有n个元素的int随机数组，每个元素的随机范围为[rangeL, rangeR]。与generateRandomArray对应，用于对比装箱版本的性能。
+     * @param n number of elements
+     * @param rangeL left range
+     * @param rangeR right range
+     * @return array
+     */
+    public static int[] generateRandomIntArray(int n, int rangeL, int rangeR) {
+        assert rangeL <= rangeR : "range error!";
+
+        int[] arr = new int[n];
+        for (int i = 0; i < n; i++){
+            arr[i] = (int) ThreadLocalRandom.current().nextLong(rangeL, (long) rangeR + 1);
+        }
+        return arr;
+    }
+
+    /**
+     * 生成有n个元素的long随机数组，每个元素的随机范围为[rangeL, rangeR]，要求rangeR < Long.MAX_VALUE
+     */
+    public static long[] generateRandomLongArray(int n, long rangeL, long rangeR) {
+        assert rangeL <= rangeR : "range error!";
+
+        long[] arr = new long[n];
+        for (int i = 0; i < n; i++){
+            arr[i] = ThreadLocalRandom.current().nextLong(rangeL, rangeR + 1);
+        }
+        return arr;
+    }
+
+    /**
+     * 生成有n个元素的double随机数组，每个元素的随机范围为[rangeL, rangeR)
+     */
+    public static double[] generateRandomDoubleArray(int n, double rangeL, double rangeR) {
+        assert rangeL <= rangeR : "range error!";
+
+        double[] arr = new double[n];
+        for (int i = 0; i < n; i++){
+            arr[i] = rangeL == rangeR ? rangeL : ThreadLocalRandom.current().nextDouble(rangeL, rangeR);
+        }
+        return arr;
+    }
+
+    /**
+     * 生成一个近乎有序的int数组，含义同generateNearlyOrderedArray
+     * @param n number of integers
+     * @param swapTimes 随机交换的次数
+     */
+    public static int[] generateNearlyOrderedIntArray(int n, int swapTimes){
+        int[] arr = new int[n];
+        for( int i = 0 ; i < n ; i ++ ){
+            arr[i] = i;
+        }
+        for( int i = 0 ; i < swapTimes ; i ++ ){
+            swap(arr, ThreadLocalRandom.current().nextInt(n), ThreadLocalRandom.current().nextInt(n));
+        }
+        return arr;
+    }
+
+    public static long[] generateNearlyOrderedLongArray(int n, int swapTimes){
+        long[] arr = new long[n];
+        for( int i = 0 ; i < n ; i ++ ){
+            arr[i] = i;
+        }
+        for( int i = 0 ; i < swapTimes ; i ++ ){
+            swap(arr, ThreadLocalRandom.current().nextInt(n), ThreadLocalRandom.current().nextInt(n));
+        }
+        return arr;
+    }
+
+    public static double[] generateNearlyOrderedDoubleArray(int n, int swapTimes){
+        double[] arr = new double[n];
+        for( int i = 0 ; i < n ; i ++ ){
+            arr[i] = i;
+        }
+        for( int i = 0 ; i < swapTimes ; i ++ ){
+            swap(arr, ThreadLocalRandom.current().nextInt(n), ThreadLocalRandom.current().nextInt(n));
+        }
+        return arr;
+    }
+
     public static <T extends Comparable<T>> boolean isSorted(T[] arr){
         for( int i = 0 ; i < arr.length - 1 ; i ++ ){
             if( arr[i].compareTo(arr[i+1]) > 0 ){
@@ -343,8 +3039,45 @@ public class Utils {
         return true;
     }
 
+    public static <T> boolean isSorted(T[] arr, Comparator<? super T> c){
+        for( int i = 0 ; i < arr.length - 1 ; i ++ ){
+            if( c.compare(arr[i], arr[i+1]) > 0 ){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static boolean isSorted(int[] arr){
+        for( int i = 0 ; i < arr.length - 1 ; i ++ ){
+            if( arr[i] > arr[i+1] ){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static boolean isSorted(long[] arr){
+        for( int i = 0 ; i < arr.length - 1 ; i ++ ){
+            if( arr[i] > arr[i+1] ){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static boolean isSorted(double[] arr){
+        for( int i = 0 ; i < arr.length - 1 ; i ++ ){
+            if( less(arr[i+1], arr[i]) ){
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * 通过反射打印每个排序函数运行的时间，以比较不同排序算法的性能。
+     * 只计时一次冷启动的运行，结果受JIT预热影响较大，仅供粗略比较；需要可重复的数据时请使用SortBenchmark。
      * @param methodName 方法名
      * @param arr array
      * @param <T> type of elements
@@ -369,4 +3102,28 @@ public class Utils {
         }
     }
 
+    /**
+     * int[]版本的testSort，用于与装箱版本对比
+     * @param methodName 方法名
+     * @param arr array
+     */
+    public static void testSort(String methodName, int[] arr){
+        try{
+            Method sortMethod = Utils.class.getMethod(methodName, int[].class);
+
+            long startTime = System.currentTimeMillis();
+            sortMethod.invoke(null, (Object) arr);
+            long endTime = System.currentTimeMillis();
+
+            assert isSorted(arr) : "this array is not sorted.";
+
+            System.out.println((methodName.charAt(0)+"").toUpperCase() +
+                    methodName.substring(1) +
+                    "(int[]) took 【" + (endTime-startTime) + "ms】 to finish sorting." );
+        }
+        catch(Exception e){
+            e.printStackTrace();
+        }
+    }
+
 }
@@ -0,0 +1,105 @@
+package tree.heapandpriorityqueue;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * @author: lsj
+ * @date: 2026/10/19 00:50
+ * Description: ConcurrentPriorityQueue在不同线程数下的竞争测试。队列先预填充一批元素，
+ * 之后每个线程在固定时长内随机地入队或出队（各占一半），统计所有线程的总吞吐量。
+ * 线程数超过处理器个数时，结果反映的是锁竞争与线程切换的开销，而不是并行加速。
+ *
+ * 用法：java tree.heapandpriorityqueue.ConcurrentHeapBenchmark [threads=1,2,4,8,16,32,64] [millis=1000] [prefill=65536]
+ */
+public class ConcurrentHeapBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        int[] threadCounts = {1, 2, 4, 8, 16, 32, 64};
+        long millis = 1000;
+        int prefill = 1 << 16;
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if(eq < 0){
+                throw new IllegalArgumentException("Illegal argument: " + arg);
+            }
+            String key = arg.substring(0, eq), value = arg.substring(eq + 1);
+            switch (key){
+                case "threads":
+                    threadCounts = Arrays.stream(value.split(",")).mapToInt(Integer::parseInt).toArray();
+                    break;
+                case "millis":
+                    millis = Long.parseLong(value);
+                    break;
+                case "prefill":
+                    prefill = Integer.parseInt(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + key);
+            }
+        }
+
+        System.out.printf("processors=%d, prefill=%d, %dms per run%n",
+                Runtime.getRuntime().availableProcessors(), prefill, millis);
+        System.out.printf("%-8s %-8s %16s%n", "mode", "threads", "ops/s");
+        for (boolean strict : new boolean[]{true, false}) {
+            //预热
+            run(strict, 1, millis, prefill);
+            for (int threads : threadCounts) {
+                double throughput = run(strict, threads, millis, prefill);
+                System.out.printf("%-8s %-8d %16.0f%n", strict ? "strict" : "relaxed", threads, throughput);
+            }
+        }
+    }
+
+    /**
+     * @return 每秒完成的操作数
+     */
+    private static double run(boolean strict, int threads, long millis, int prefill) throws InterruptedException {
+        ConcurrentPriorityQueue<Integer> queue = strict ? ConcurrentPriorityQueue.strict() : ConcurrentPriorityQueue.relaxed();
+        for (int i = 0; i < prefill; i++) {
+            queue.enqueue(ThreadLocalRandom.current().nextInt());
+        }
+        long[] counts = new long[threads];
+        CountDownLatch start = new CountDownLatch(1);
+        long[] deadline = new long[1];
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int id = t;
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long ops = 0;
+                long end = deadline[0];
+                //每1024次操作检查一次时间
+                while ((ops & 1023) != 0 || System.nanoTime() < end) {
+                    if(random.nextBoolean()){
+                        queue.enqueue(random.nextInt());
+                    }else{
+                        queue.dequeue();
+                    }
+                    ops++;
+                }
+                counts[id] = ops;
+            });
+            workers[t].start();
+        }
+        long begin = System.nanoTime();
+        deadline[0] = begin + millis * 1_000_000L;
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total * 1e9 / elapsed;
+    }
+}
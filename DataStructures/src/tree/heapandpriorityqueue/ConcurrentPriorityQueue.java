@@ -0,0 +1,237 @@
+package tree.heapandpriorityqueue;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * @author: lsj
+ * @date: 2026/10/19 00:30
+ * Description: 线程安全的优先队列，与PriorityQueue一样优先级最大的元素先出队。有两种模式：
+ * 1. relaxed（MultiQueue）：内部有c*p个互相独立的堆（p为处理器个数），每个堆由各自的锁保护。
+ *    入队时随机选一个堆，tryLock失败就换一个，不会阻塞；出队时随机选两个堆，比较它们的堆顶，
+ *    从堆顶较大的那个堆中取出元素。不同线程几乎总是操作不同的堆，吞吐量随线程数增长。
+ *    代价是出队顺序是近似的：取出的元素在期望上排名靠前（与全局最大值的排名差为O(c*p)），但不一定是当前的最大值；
+ * 2. strict：只有一个堆和一把锁，每个操作都是线性一致(linearizable)的，出队的总是当前的最大值，但所有线程串行执行。
+ * 各模式在不同线程数下的吞吐量见ConcurrentHeapBenchmark。
+ */
+public class ConcurrentPriorityQueue<E extends Comparable<E>> {
+
+    /**
+     * relaxed模式下每个处理器对应的堆个数c的默认值
+     */
+    public static final int DEFAULT_QUEUES_PER_PROCESSOR = 2;
+
+    /**
+     * relaxed模式下连续tryLock失败的次数达到该值后，改为阻塞地获取锁，避免在激烈竞争下一直重试
+     */
+    private static final int MAX_ATTEMPTS = 64;
+
+    /**
+     * 一个由锁保护的堆。top和size在持有锁时更新，读取时不需要加锁，用于选择堆以及判断队列是否为空
+     */
+    private static final class Stripe<E extends Comparable<E>> {
+        final ReentrantLock lock = new ReentrantLock();
+        final DaryMaxHeap<E> heap = new DaryMaxHeap<>(4);
+        volatile E top;
+        volatile int size;
+
+        void add(E e){
+            heap.add(e);
+            update();
+        }
+
+        E extractMax(){
+            E e = heap.extractMax();
+            update();
+            return e;
+        }
+
+        private void update(){
+            size = heap.size();
+            top = heap.isEmpty() ? null : heap.getMax();
+        }
+    }
+
+    private final Stripe<E>[] stripes;
+    private final boolean strict;
+
+    @SuppressWarnings("unchecked")
+    private ConcurrentPriorityQueue(int queues, boolean strict){
+        stripes = (Stripe<E>[]) new Stripe<?>[queues];
+        for (int i = 0; i < queues; i++) {
+            stripes[i] = new Stripe<>();
+        }
+        this.strict = strict;
+    }
+
+    /**
+     * @return relaxed模式的队列，共有DEFAULT_QUEUES_PER_PROCESSOR * 处理器个数个堆
+     */
+    public static <E extends Comparable<E>> ConcurrentPriorityQueue<E> relaxed(){
+        return relaxed(DEFAULT_QUEUES_PER_PROCESSOR);
+    }
+
+    /**
+     * @param queuesPerProcessor 每个处理器对应的堆个数c，越大竞争越少，出队顺序也越不精确
+     * @return relaxed模式的队列
+     */
+    public static <E extends Comparable<E>> ConcurrentPriorityQueue<E> relaxed(int queuesPerProcessor){
+        if(queuesPerProcessor < 1){
+            throw new IllegalArgumentException("queuesPerProcessor should be positive.");
+        }
+        int p = Runtime.getRuntime().availableProcessors();
+        //至少两个堆，出队时才能从两个堆中选择
+        return new ConcurrentPriorityQueue<>(Math.max(queuesPerProcessor * p, 2), false);
+    }
+
+    /**
+     * @return strict模式的队列
+     */
+    public static <E extends Comparable<E>> ConcurrentPriorityQueue<E> strict(){
+        return new ConcurrentPriorityQueue<>(1, true);
+    }
+
+    public boolean isStrict(){
+        return strict;
+    }
+
+    /**
+     * @return 队列中的元素个数，有其他线程同时入队或出队时是近似值
+     */
+    public int size(){
+        int size = 0;
+        for (Stripe<E> stripe : stripes) {
+            size += stripe.size;
+        }
+        return size;
+    }
+
+    public boolean isEmpty(){
+        return size() == 0;
+    }
+
+    public void enqueue(E e){
+        if(e == null){
+            throw new IllegalArgumentException("element should not be null.");
+        }
+        if(strict){
+            Stripe<E> stripe = stripes[0];
+            stripe.lock.lock();
+            try {
+                stripe.add(e);
+            } finally {
+                stripe.lock.unlock();
+            }
+            return;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int attempt = 0; ; attempt++) {
+            Stripe<E> stripe = stripes[random.nextInt(stripes.length)];
+            if(attempt < MAX_ATTEMPTS){
+                if(!stripe.lock.tryLock()){
+                    continue;
+                }
+            }else{
+                stripe.lock.lock();
+            }
+            try {
+                stripe.add(e);
+            } finally {
+                stripe.lock.unlock();
+            }
+            return;
+        }
+    }
+
+    /**
+     * 取出优先级最大的元素；relaxed模式下为近似最大的元素
+     * @return 队列为空时返回null
+     */
+    public E dequeue(){
+        if(strict){
+            Stripe<E> stripe = stripes[0];
+            stripe.lock.lock();
+            try {
+                return stripe.heap.isEmpty() ? null : stripe.extractMax();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            Stripe<E> a = stripes[random.nextInt(stripes.length)], b = stripes[random.nextInt(stripes.length)];
+            E topA = a.top, topB = b.top;
+            if(topA == null && topB == null){
+                if(isEmpty()){
+                    return null;
+                }
+                continue;
+            }
+            //选择堆顶较大的一个
+            Stripe<E> best = topB == null || (topA != null && topA.compareTo(topB) >= 0) ? a : b;
+            if(best.lock.tryLock()){
+                try {
+                    //加锁前堆顶可能已被其他线程取走
+                    if(!best.heap.isEmpty()){
+                        return best.extractMax();
+                    }
+                } finally {
+                    best.lock.unlock();
+                }
+            }
+        }
+        return dequeueSlow();
+    }
+
+    /**
+     * 多次随机选择都失败时，扫描所有的堆，阻塞地从堆顶最大的堆中取出元素
+     */
+    private E dequeueSlow(){
+        while (true) {
+            Stripe<E> best = null;
+            E bestTop = null;
+            for (Stripe<E> stripe : stripes) {
+                E top = stripe.top;
+                if(top != null && (bestTop == null || top.compareTo(bestTop) > 0)){
+                    best = stripe;
+                    bestTop = top;
+                }
+            }
+            if(best == null){
+                return null;
+            }
+            best.lock.lock();
+            try {
+                if(!best.heap.isEmpty()){
+                    return best.extractMax();
+                }
+            } finally {
+                best.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * @return 优先级最大的元素但不取出，队列为空时返回null。relaxed模式下不加锁，读到的是各个堆顶中的最大值，
+     * 有其他线程同时操作时可能已经过期
+     */
+    public E peek(){
+        if(strict){
+            Stripe<E> stripe = stripes[0];
+            stripe.lock.lock();
+            try {
+                return stripe.top;
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        E best = null;
+        for (Stripe<E> stripe : stripes) {
+            E top = stripe.top;
+            if(top != null && (best == null || top.compareTo(best) > 0)){
+                best = top;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,121 @@
+package tree.heapandpriorityqueue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * @author: lsj
+ * @date: 2026/10/19 00:05
+ * Description: 不同叉数的DaryMaxHeap与MaxHeap的对比测试，寻找各规模下的最优叉数。两种负载：
+ * 1. push-heavy：从空堆开始add n个元素，再extractMax n/4次，上浮为主；
+ * 2. pop-heavy：建好n个元素的堆后extractMax全部元素，下沉为主，只对extractMax计时。
+ * 输出每次操作的平均纳秒数（取各轮中最好的一轮），元素为预先装箱的随机Integer。
+ * 10^8个Integer约需3GB以上内存，需要相应地调大-Xmx。
+ *
+ * 用法：java -Xmx4g tree.heapandpriorityqueue.DaryHeapBenchmark [sizes=10000,100000,1000000,10000000] [rounds=3]
+ */
+public class DaryHeapBenchmark {
+
+    private static final int[] ARITIES = {2, 4, 8};
+
+    public static void main(String[] args) {
+        int[] sizes = {10000, 100000, 1000000, 10000000};
+        int rounds = 3;
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if(eq < 0){
+                throw new IllegalArgumentException("Illegal argument: " + arg);
+            }
+            String key = arg.substring(0, eq), value = arg.substring(eq + 1);
+            if("sizes".equals(key)){
+                sizes = Arrays.stream(value.split(",")).mapToInt(Integer::parseInt).toArray();
+            }else if("rounds".equals(key)){
+                rounds = Integer.parseInt(value);
+            }else{
+                throw new IllegalArgumentException("Unknown option: " + key);
+            }
+        }
+
+        System.out.printf("%-10s %-12s %14s %14s%n", "size", "heap", "push(ns/op)", "pop(ns/op)");
+        long blackhole = 0;
+        for (int n : sizes) {
+            Integer[] values = new Integer[n];
+            Random random = new Random(n);
+            for (int i = 0; i < n; i++) {
+                values[i] = random.nextInt();
+            }
+            //arity为0表示原来的MaxHeap
+            int[] variants = new int[ARITIES.length + 1];
+            System.arraycopy(ARITIES, 0, variants, 1, ARITIES.length);
+            for (int arity : variants) {
+                double push = Double.MAX_VALUE, pop = Double.MAX_VALUE;
+                //第一轮作为预热，不计入结果
+                for (int r = 0; r <= rounds; r++) {
+                    long start = System.nanoTime();
+                    blackhole += pushHeavy(values, arity);
+                    double pushTime = (double) (System.nanoTime() - start) / (n + n / 4);
+                    long[] elapsed = new long[1];
+                    blackhole += popHeavy(values, arity, elapsed);
+                    double popTime = (double) elapsed[0] / n;
+                    if(r > 0){
+                        push = Math.min(push, pushTime);
+                        pop = Math.min(pop, popTime);
+                    }
+                }
+                System.out.printf("%-10d %-12s %14.1f %14.1f%n", n,
+                        arity == 0 ? "MaxHeap" : arity + "-ary", push, pop);
+            }
+        }
+        System.out.println("checksum: " + blackhole);
+    }
+
+    private static long pushHeavy(Integer[] values, int arity){
+        int n = values.length;
+        long sum = 0;
+        if(arity == 0){
+            MaxHeap<Integer> heap = new MaxHeap<>(n);
+            for (Integer v : values) {
+                heap.add(v);
+            }
+            for (int i = 0; i < n / 4; i++) {
+                sum += heap.extractMax();
+            }
+        }else{
+            DaryMaxHeap<Integer> heap = new DaryMaxHeap<>(arity, n);
+            for (Integer v : values) {
+                heap.add(v);
+            }
+            for (int i = 0; i < n / 4; i++) {
+                sum += heap.extractMax();
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * @param elapsed elapsed[0]为extractMax阶段的耗时
+     */
+    private static long popHeavy(Integer[] values, int arity, long[] elapsed){
+        int n = values.length;
+        long sum = 0;
+        if(arity == 0){
+            MaxHeap<Integer> heap = new MaxHeap<>(n);
+            for (Integer v : values) {
+                heap.add(v);
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                sum += heap.extractMax();
+            }
+            elapsed[0] = System.nanoTime() - start;
+        }else{
+            DaryMaxHeap<Integer> heap = new DaryMaxHeap<>(arity, values);
+            long start = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                sum += heap.extractMax();
+            }
+            elapsed[0] = System.nanoTime() - start;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,155 @@
+package tree.heapandpriorityqueue;
+
+import java.util.Arrays;
+
+/**
+ * @author: lsj
+ * @date: 2026/10/18 23:50
+ * Description: d叉大根堆，与MaxHeap的add, extractMax, replace和heapify操作相同，叉数d在构造时指定（常用2、4、8）。
+ * 节点i的孩子为d*i+1 ... d*i+d，父亲为(i-1)/d。与二叉堆相比：
+ * 1. 树高为log_d(n)，d=4时约为二叉堆的一半，上浮(add)的比较次数随之减半；
+ * 2. 同一个节点的d个孩子在数组中相邻，引用压缩时d个孩子占4d字节，最多跨越两条缓存行，下沉时每层读取孩子最多两次缓存未命中，
+ *    但层数更少。注意这里只保证相邻，不保证按缓存行对齐：Java无法控制数组的起始地址，孩子组在64字节缓存行中的位置是任意的，
+ *    d=4时约有13/16的孩子组落在同一条缓存行中，d=8时只有约9/16。代价是每层要在d个孩子中找最大值，需要d-1次比较，
+ *    因此extractMax的比较次数更多。堆远大于缓存时缓存未命中占主导，d叉堆更快；堆较小时二叉堆的比较更少。
+ * 上浮和下沉都移动“空位”而不交换。各规模下的对比见DaryHeapBenchmark。
+ */
+public class DaryMaxHeap<E extends Comparable<E>> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final int arity;
+    private Object[] data;
+    private int size;
+
+    public DaryMaxHeap(int arity){
+        this(arity, DEFAULT_CAPACITY);
+    }
+
+    public DaryMaxHeap(int arity, int capacity){
+        if(arity < 2){
+            throw new IllegalArgumentException("arity should be at least 2.");
+        }
+        if(capacity < 0){
+            throw new IllegalArgumentException("capacity should be non-negative.");
+        }
+        this.arity = arity;
+        data = new Object[Math.max(capacity, 1)];
+    }
+
+    /**
+     * 复制arr并heapify，时间复杂度O(n)
+     */
+    public DaryMaxHeap(int arity, E[] arr){
+        this(arity, arr.length);
+        System.arraycopy(arr, 0, data, 0, arr.length);
+        size = arr.length;
+        //最后一个非叶子节点为最后一个元素的父亲
+        for (int i = size <= 1 ? -1 : (size - 2) / arity; i >= 0; i--) {
+            shiftDown(i, elementAt(i));
+        }
+    }
+
+    public int getArity(){
+        return arity;
+    }
+
+    public int size(){
+        return size;
+    }
+
+    public boolean isEmpty(){
+        return size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private E elementAt(int i){
+        return (E) data[i];
+    }
+
+    public void add(E e){
+        if(size == data.length){
+            int newCapacity = data.length + (data.length >> 1) + 1;
+            data = Arrays.copyOf(data, newCapacity < 0 ? Integer.MAX_VALUE : newCapacity);
+        }
+        shiftUp(size++, e);
+    }
+
+    /**
+     * 将e放入空位hole，并沿父亲方向上浮
+     */
+    private void shiftUp(int hole, E e){
+        while (hole > 0) {
+            int parent = (hole - 1) / arity;
+            E p = elementAt(parent);
+            if(p.compareTo(e) >= 0){
+                break;
+            }
+            data[hole] = p;
+            hole = parent;
+        }
+        data[hole] = e;
+    }
+
+    /**
+     * 将e放入空位hole，并沿最大的孩子下沉
+     */
+    private void shiftDown(int hole, E e){
+        int lastParent = size <= 1 ? -1 : (size - 2) / arity;
+        while (hole <= lastParent) {
+            int child = arity * hole + 1, max = child;
+            E maxChild;
+            if(arity == 2){
+                //二叉时只记录较大孩子的下标，比较完再读取。若在比较时用变量保存较大的孩子，JIT会将其编译为条件传送，
+                //下一层的读取要等本层的比较结果；而分支可以让CPU沿预测的方向提前读取下一层
+                if(child + 1 < size && elementAt(child + 1).compareTo(elementAt(child)) > 0){
+                    max++;
+                }
+                maxChild = elementAt(max);
+            }else{
+                maxChild = elementAt(child);
+                for (int j = child + 1, last = Math.min(child + arity, size); j < last; j++) {
+                    E c = elementAt(j);
+                    if(c.compareTo(maxChild) > 0){
+                        max = j;
+                        maxChild = c;
+                    }
+                }
+            }
+            if(e.compareTo(maxChild) >= 0){
+                break;
+            }
+            data[hole] = maxChild;
+            hole = max;
+        }
+        data[hole] = e;
+    }
+
+    public E getMax(){
+        if(size == 0){
+            throw new RuntimeException("Heap is empty.");
+        }
+        return elementAt(0);
+    }
+
+    public E extractMax(){
+        E result = getMax();
+        E last = elementAt(--size);
+        data[size] = null;
+        if(size > 0){
+            shiftDown(0, last);
+        }
+        return result;
+    }
+
+    /**
+     * 取出堆中的最大元素，并且新加入一个元素，只需一次下沉
+     * @param e 添加的元素
+     * @return 取出的最大元素
+     */
+    public E replace(E e){
+        E result = getMax();
+        shiftDown(0, e);
+        return result;
+    }
+}
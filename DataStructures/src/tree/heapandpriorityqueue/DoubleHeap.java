@@ -0,0 +1,184 @@
+package tree.heapandpriorityqueue;
+
+import java.util.Arrays;
+
+/**
+ * @author: lsj
+ * @date: 2026/10/18 23:00
+ * Description: double堆，构造时指定为大根堆或小根堆。与MaxHeap<Double>相比：
+ * 1. 元素直接存放在double[]中，没有装箱，也没有List.get/set的边界检查和compareTo的接口调用；
+ * 2. 上浮和下沉时不交换，而是移动“空位”(hole)：沿路径把父亲（或更靠近堆顶的孩子）移入空位，最后把元素放入最终位置，每层只写一次数组；
+ * 3. 数组满时按1.5倍扩容，均摊O(1)；出堆不缩容，容量稳定后add/extractTop不再分配内存。
+ * 元素之间直接用<和>比较，NaN无法与其他元素比较大小，因此不允许加入NaN。
+ */
+public class DoubleHeap {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private double[] data;
+    private int size;
+    /**
+     * true为大根堆，false为小根堆
+     */
+    private final boolean max;
+
+    /**
+     * @param max true为大根堆，false为小根堆
+     */
+    public DoubleHeap(boolean max){
+        this(DEFAULT_CAPACITY, max);
+    }
+
+    public DoubleHeap(int capacity, boolean max){
+        if(capacity < 0){
+            throw new IllegalArgumentException("capacity should be non-negative.");
+        }
+        data = new double[Math.max(capacity, 1)];
+        this.max = max;
+    }
+
+    /**
+     * 复制arr并heapify，时间复杂度O(n)
+     */
+    public DoubleHeap(double[] arr, boolean max){
+        for (double e : arr) {
+            checkNotNaN(e);
+        }
+        data = Arrays.copyOf(arr, Math.max(arr.length, 1));
+        size = arr.length;
+        this.max = max;
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            shiftDown(i, data[i]);
+        }
+    }
+
+    public int size(){
+        return size;
+    }
+
+    /**
+     * @return true为大根堆，false为小根堆
+     */
+    public boolean isMaxHeap(){
+        return max;
+    }
+
+    public boolean isEmpty(){
+        return size == 0;
+    }
+
+    /**
+     * 清空堆，保留已分配的数组
+     */
+    public void clear(){
+        size = 0;
+    }
+
+    /**
+     * 预先扩容，使容量不小于capacity
+     */
+    public void ensureCapacity(int capacity){
+        if(capacity > data.length){
+            data = Arrays.copyOf(data, capacity);
+        }
+    }
+
+    private void grow(){
+        int newCapacity = data.length + (data.length >> 1) + 1;
+        if(newCapacity < 0){
+            //溢出
+            if(data.length == Integer.MAX_VALUE){
+                throw new IllegalStateException("Heap is full.");
+            }
+            newCapacity = Integer.MAX_VALUE;
+        }
+        data = Arrays.copyOf(data, newCapacity);
+    }
+
+    private static void checkNotNaN(double e){
+        if(Double.isNaN(e)){
+            throw new IllegalArgumentException("NaN can't be added to the heap.");
+        }
+    }
+
+    /**
+     * a是否应该比b更靠近堆顶
+     */
+    private boolean higher(double a, double b){
+        return max ? a > b : a < b;
+    }
+
+    public void add(double e){
+        checkNotNaN(e);
+        if(size == data.length){
+            grow();
+        }
+        shiftUp(size++, e);
+    }
+
+    /**
+     * 将e放入空位hole，并沿父亲方向上浮
+     */
+    private void shiftUp(int hole, double e){
+        while (hole > 0) {
+            int parent = (hole - 1) >>> 1;
+            if(!higher(e, data[parent])){
+                break;
+            }
+            data[hole] = data[parent];
+            hole = parent;
+        }
+        data[hole] = e;
+    }
+
+    /**
+     * 将e放入空位hole，并沿更靠近堆顶的孩子下沉
+     */
+    private void shiftDown(int hole, double e){
+        //size/2及之后的节点都是叶子
+        int half = size >>> 1;
+        while (hole < half) {
+            int child = 2 * hole + 1;
+            if(child + 1 < size && higher(data[child + 1], data[child])){
+                child++;
+            }
+            if(!higher(data[child], e)){
+                break;
+            }
+            data[hole] = data[child];
+            hole = child;
+        }
+        data[hole] = e;
+    }
+
+    /**
+     * @return 堆顶元素，即大根堆的最大值或小根堆的最小值
+     */
+    public double getTop(){
+        if(size == 0){
+            throw new RuntimeException("Heap is empty.");
+        }
+        return data[0];
+    }
+
+    public double extractTop(){
+        double result = getTop();
+        double last = data[--size];
+        if(size > 0){
+            shiftDown(0, last);
+        }
+        return result;
+    }
+
+    /**
+     * 取出堆顶元素，并且新加入一个元素，只需一次下沉
+     * @param e 添加的元素
+     * @return 取出的堆顶元素
+     */
+    public double replace(double e){
+        checkNotNaN(e);
+        double result = getTop();
+        shiftDown(0, e);
+        return result;
+    }
+}
@@ -0,0 +1,146 @@
+package tree.heapandpriorityqueue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * @author: lsj
+ * @date: 2026/10/18 23:10
+ * Description: 基本类型堆与装箱的MaxHeap的对比测试。模拟调度器的稳态：堆中保持size个元素，
+ * 每次操作先add一个新元素再取出堆顶。每个实现先预热若干轮，再测量若干轮，输出每秒操作数以及平均每次操作分配的字节数（含建堆）。
+ * 成对比较的两个实现必须做同样的工作：大根堆与小根堆在递增的时间戳上上浮、下沉的路径完全不同，
+ * 因此MaxHeap<Long>中存放时间戳的相反数，与LongMinHeap一样按时间戳从小到大取出。
+ *
+ * 用法：java tree.heapandpriorityqueue.HeapBenchmark [size] [operations] [rounds]
+ */
+public class HeapBenchmark {
+
+    /**
+     * 一轮测试，返回取出元素的校验和，防止JIT消除整个循环
+     */
+    private interface Workload {
+        long run(long[] values, int size, int operations);
+    }
+
+    private static long boxedIntMaxHeap(long[] values, int size, int operations){
+        MaxHeap<Integer> heap = new MaxHeap<>(size + 1);
+        for (int i = 0; i < size; i++) {
+            heap.add((int) values[i]);
+        }
+        long sum = 0;
+        for (int i = 0; i < operations; i++) {
+            heap.add((int) values[(size + i) % values.length]);
+            sum += heap.extractMax();
+        }
+        return sum;
+    }
+
+    private static long intMaxHeap(long[] values, int size, int operations){
+        IntMaxHeap heap = new IntMaxHeap(size + 1);
+        for (int i = 0; i < size; i++) {
+            heap.add((int) values[i]);
+        }
+        long sum = 0;
+        for (int i = 0; i < operations; i++) {
+            heap.add((int) values[(size + i) % values.length]);
+            sum += heap.extractMax();
+        }
+        return sum;
+    }
+
+    /**
+     * 存放相反数的大根堆即为小根堆，与longMinHeap取出的元素顺序相同
+     */
+    private static long boxedLongMinHeap(long[] values, int size, int operations){
+        MaxHeap<Long> heap = new MaxHeap<>(size + 1);
+        for (int i = 0; i < size; i++) {
+            heap.add(-values[i]);
+        }
+        long sum = 0;
+        for (int i = 0; i < operations; i++) {
+            heap.add(-values[(size + i) % values.length]);
+            sum -= heap.extractMax();
+        }
+        return sum;
+    }
+
+    private static long longMinHeap(long[] values, int size, int operations){
+        LongMinHeap heap = new LongMinHeap(size + 1);
+        for (int i = 0; i < size; i++) {
+            heap.add(values[i]);
+        }
+        long sum = 0;
+        for (int i = 0; i < operations; i++) {
+            heap.add(values[(size + i) % values.length]);
+            sum += heap.extractMin();
+        }
+        return sum;
+    }
+
+    private static long doubleHeap(long[] values, int size, int operations){
+        DoubleHeap heap = new DoubleHeap(size + 1, true);
+        for (int i = 0; i < size; i++) {
+            heap.add(values[i]);
+        }
+        long sum = 0;
+        for (int i = 0; i < operations; i++) {
+            heap.add(values[(size + i) % values.length]);
+            sum += (long) heap.extractTop();
+        }
+        return sum;
+    }
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1 << 16;
+        int operations = args.length > 1 ? Integer.parseInt(args[1]) : 1 << 22;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        //时间戳形式的数据：整体递增并带有随机抖动
+        Random random = new Random(42);
+        long[] values = new long[size + operations];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i + random.nextInt(size);
+        }
+
+        String[] names = {"MaxHeap<Integer>", "IntMaxHeap", "MaxHeap<-Long>", "LongMinHeap", "DoubleHeap"};
+        Workload[] workloads = {HeapBenchmark::boxedIntMaxHeap, HeapBenchmark::intMaxHeap,
+                HeapBenchmark::boxedLongMinHeap, HeapBenchmark::longMinHeap, HeapBenchmark::doubleHeap};
+
+        System.out.printf("size=%d, operations=%d (add + extract per operation)%n", size, operations);
+        System.out.printf("%-18s %14s %14s%n", "heap", "ops/s", "alloc(B/op)");
+        long blackhole = 0;
+        for (int w = 0; w < workloads.length; w++) {
+            //预热
+            for (int r = 0; r < rounds; r++) {
+                blackhole += workloads[w].run(values, size, operations);
+            }
+            long best = Long.MAX_VALUE, allocated = Long.MAX_VALUE;
+            for (int r = 0; r < rounds; r++) {
+                long bytesBefore = allocatedBytes();
+                long start = System.nanoTime();
+                blackhole += workloads[w].run(values, size, operations);
+                best = Math.min(best, System.nanoTime() - start);
+                //不支持统计分配字节数时两次都返回-1，差值为0，需要单独判断
+                allocated = bytesBefore < 0 ? -1 : Math.min(allocated, allocatedBytes() - bytesBefore);
+            }
+            String allocPerOp = allocated < 0 ? "n/a" : String.format(Locale.ROOT, "%.1f", (double) allocated / operations);
+            System.out.printf("%-18s %14.0f %14s%n", names[w], operations * 1e9 / best, allocPerOp);
+        }
+        System.out.println("checksum: " + blackhole);
+    }
+
+    /**
+     * 当前线程累计分配的字节数，JVM不支持时返回-1
+     */
+    private static long allocatedBytes(){
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if(bean instanceof com.sun.management.ThreadMXBean){
+            com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            if(sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled()){
+                return sunBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+}
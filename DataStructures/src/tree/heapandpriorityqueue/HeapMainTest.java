@@ -1,6 +1,8 @@
 package tree.heapandpriorityqueue;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Random;
 
 /**
@@ -25,6 +27,228 @@ public class HeapMainTest {
             count++;
             System.out.print(maxHeap.extractMax()+" ");
         }
+        System.out.println();
 
+        testMaxHeap(random);
+        testIndexMinHeap(random);
+    }
+
+    private static void check(boolean condition, String message){
+        if(!condition){
+            throw new RuntimeException(message);
+        }
+    }
+
+    /**
+     * 以java.util.PriorityQueue（按逆序比较）作为参照，检查MaxHeap的数组构造、replace、pushPop以及批量操作
+     */
+    private static void testMaxHeap(Random random){
+        //数组构造后继续add和extractMax
+        Integer[] arr = new Integer[1000];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = random.nextInt(500);
+        }
+        MaxHeap<Integer> heap = new MaxHeap<>(arr);
+        java.util.PriorityQueue<Integer> oracle = new java.util.PriorityQueue<>(Collections.reverseOrder());
+        Collections.addAll(oracle, arr);
+        for (int i = 0; i < 1000; i++) {
+            int e = random.nextInt(500);
+            heap.add(e);
+            oracle.add(e);
+            if(i % 2 == 0){
+                check(heap.extractMax().equals(oracle.poll()), "MaxHeap(E[]) then add/extractMax is wrong.");
+            }
+        }
+        while (!oracle.isEmpty()) {
+            check(heap.extractMax().equals(oracle.poll()), "MaxHeap(E[]) then add/extractMax is wrong.");
+        }
+        check(heap.isEmpty(), "MaxHeap(E[]) has extra elements.");
+        //只有一个元素的数组
+        MaxHeap<Integer> single = new MaxHeap<>(new Integer[]{7});
+        single.add(3);
+        check(single.extractMax() == 7 && single.extractMax() == 3 && single.isEmpty(), "MaxHeap(E[]) with one element is wrong.");
+
+        //replace先取出再加入，pushPop先加入再取出
+        heap = new MaxHeap<>();
+        oracle.clear();
+        for (int i = 0; i < 100; i++) {
+            int e = random.nextInt(1000);
+            heap.add(e);
+            oracle.add(e);
+        }
+        for (int i = 0; i < 10000; i++) {
+            int e = random.nextInt(1000);
+            if(random.nextBoolean()){
+                Integer expected = oracle.poll();
+                oracle.add(e);
+                check(heap.replace(e).equals(expected), "replace is wrong.");
+            }else{
+                oracle.add(e);
+                check(heap.pushPop(e).equals(oracle.poll()), "pushPop is wrong.");
+            }
+            check(heap.size() == oracle.size() && heap.getMax().equals(oracle.peek()), "heap differs after replace/pushPop.");
+        }
+
+        //drainTo和pollBatch：取出不到一半时逐个extractMax，至少一半时整体排序
+        for (int k : new int[]{0, 10, 49, 50, 51, 100, 150}) {
+            for (boolean poll : new boolean[]{false, true}) {
+                heap = new MaxHeap<>();
+                oracle.clear();
+                for (int i = 0; i < 100; i++) {
+                    int e = random.nextInt(50);
+                    heap.add(e);
+                    oracle.add(e);
+                }
+                List<Integer> batch;
+                if(poll){
+                    batch = heap.pollBatch(k);
+                }else{
+                    Integer[] buffer = new Integer[k];
+                    batch = new ArrayList<>();
+                    int n = heap.drainTo(buffer, k);
+                    for (int i = 0; i < n; i++) {
+                        batch.add(buffer[i]);
+                    }
+                }
+                check(batch.size() == Math.min(k, 100), "batch size is wrong.");
+                for (Integer e : batch) {
+                    check(e.equals(oracle.poll()), (poll ? "pollBatch" : "drainTo") + " is wrong.");
+                }
+                //剩余的元素仍然构成堆
+                while (!oracle.isEmpty()) {
+                    check(heap.extractMax().equals(oracle.poll()), "heap is broken after a batch.");
+                }
+                check(heap.isEmpty(), "heap has extra elements after a batch.");
+            }
+        }
+
+        //addAll：批量较小时逐个上浮，较大时整体heapify
+        for (int k : new int[]{0, 10, 2000}) {
+            heap = new MaxHeap<>();
+            oracle.clear();
+            for (int i = 0; i < 1000; i++) {
+                int e = random.nextInt(5000);
+                heap.add(e);
+                oracle.add(e);
+            }
+            List<Integer> batch = new ArrayList<>();
+            for (int i = 0; i < k; i++) {
+                batch.add(random.nextInt(5000));
+            }
+            heap.addAll(batch);
+            oracle.addAll(batch);
+            while (!oracle.isEmpty()) {
+                check(heap.extractMax().equals(oracle.poll()), "addAll of " + k + " elements is wrong.");
+            }
+            check(heap.isEmpty(), "heap has extra elements after addAll.");
+        }
+        System.out.println("MaxHeap与PriorityQueue一致");
+    }
+
+    /**
+     * compareTo调用一定次数后抛出异常的key，用于检查IndexMinHeap在比较失败后是否保持原样
+     */
+    private static final class Key implements Comparable<Key> {
+        /**
+         * 再调用多少次compareTo后抛出异常，负数表示不抛出
+         */
+        static int failAfter = -1;
+        final int value;
+
+        Key(int value){
+            this.value = value;
+        }
+
+        @Override
+        public int compareTo(Key o) {
+            if(failAfter >= 0 && failAfter-- == 0){
+                throw new IllegalStateException("compareTo failed.");
+            }
+            return Integer.compare(value, o.value);
+        }
+    }
+
+    /**
+     * 随机执行insert、changeKey、decreaseKey、increaseKey、remove和extractMin，每一步之后与模型数组model比较：
+     * model[id]为id的key，不在堆中时为null。部分操作中途让compareTo抛出异常，此时堆应与操作前相同。
+     */
+    private static void testIndexMinHeap(Random random){
+        int capacity = 200;
+        IndexMinHeap<Key> heap = new IndexMinHeap<>(capacity);
+        Key[] model = new Key[capacity];
+        int failures = 0;
+        for (int step = 0; step < 200000; step++) {
+            int id = random.nextInt(capacity);
+            Key key = new Key(random.nextInt(100));
+            int op = random.nextInt(6);
+            //约1/8的操作在前几次比较中失败
+            Key.failAfter = random.nextInt(8) == 0 ? random.nextInt(4) : -1;
+            try {
+                if(model[id] == null){
+                    if(op == 0){
+                        try {
+                            heap.insert(id, null);
+                            check(false, "insert(null) should fail.");
+                        } catch (NullPointerException e) {
+                            //预期的异常
+                        }
+                    }else{
+                        heap.insert(id, key);
+                        model[id] = key;
+                    }
+                }else if(op == 0){
+                    heap.changeKey(id, key);
+                    model[id] = key;
+                }else if(op == 1){
+                    if(key.value <= model[id].value){
+                        heap.decreaseKey(id, key);
+                        model[id] = key;
+                    }
+                }else if(op == 2){
+                    if(key.value >= model[id].value){
+                        heap.increaseKey(id, key);
+                        model[id] = key;
+                    }
+                }else if(op == 3){
+                    heap.remove(id);
+                    model[id] = null;
+                }else if(op == 4){
+                    int min = heap.getMinId();
+                    check(heap.extractMin() == min, "extractMin should return getMinId().");
+                    model[min] = null;
+                }
+            } catch (IllegalStateException e) {
+                failures++;
+            }
+            Key.failAfter = -1;
+            verify(heap, model);
+        }
+        //最后逐个取出，key应当不减
+        int previous = Integer.MIN_VALUE;
+        while (!heap.isEmpty()) {
+            int value = heap.getMin().value;
+            check(value >= previous, "extractMin order is wrong.");
+            model[heap.extractMin()] = null;
+            previous = value;
+        }
+        verify(heap, model);
+        System.out.println("IndexMinHeap与模型一致，其中" + failures + "次操作因compareTo抛出异常而失败，堆保持不变");
+    }
+
+    private static void verify(IndexMinHeap<Key> heap, Key[] model){
+        int size = 0, min = Integer.MAX_VALUE;
+        for (int id = 0; id < model.length; id++) {
+            check(heap.contains(id) == (model[id] != null), "contains(" + id + ") is wrong.");
+            if(model[id] != null){
+                check(heap.keyOf(id) == model[id], "keyOf(" + id + ") is wrong.");
+                size++;
+                min = Math.min(min, model[id].value);
+            }
+        }
+        check(heap.size() == size, "size is wrong.");
+        if(size > 0){
+            check(heap.getMin().value == min, "getMin is wrong.");
+            check(model[heap.getMinId()] == heap.getMin(), "getMinId is wrong.");
+        }
     }
 }
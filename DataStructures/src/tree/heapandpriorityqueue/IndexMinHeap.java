@@ -0,0 +1,258 @@
+package tree.heapandpriorityqueue;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * @author: lsj
+ * @date: 2026/10/18 23:30
+ * Description: 索引小根堆。每个元素由[0, capacity)中的一个int id标识，堆中按元素的key排序，
+ * 除了insert和extractMin外，还可以按id修改key(changeKey/decreaseKey/increaseKey)、删除元素(remove)以及查询key(keyOf)。
+ * 例如Dijkstra算法中，顶点的距离变短时直接decreaseKey，而不需要插入一个重复的顶点再在出堆时跳过过期的记录。
+ *
+ * 堆中只存放id：heap[i]为堆中第i个位置的id，pos[id]为id在堆中的位置（不在堆中时为-1），keys[id]为id的key。
+ * 两个位置映射都是int数组，不需要为每个元素创建节点对象。
+ * contains、keyOf、getMin为O(1)，insert、extractMin、changeKey、remove为O(log n)。
+ * key不能为null。上浮和下沉都先只做比较、确定目标位置，再移动元素，因此compareTo抛出异常时堆保持原样。
+ */
+public class IndexMinHeap<E extends Comparable<E>> {
+
+    private final int[] heap;
+    private final int[] pos;
+    private final Object[] keys;
+    private int size;
+
+    /**
+     * @param capacity id的取值范围为[0, capacity)
+     */
+    public IndexMinHeap(int capacity){
+        if(capacity < 0){
+            throw new IllegalArgumentException("capacity should be non-negative.");
+        }
+        heap = new int[capacity];
+        pos = new int[capacity];
+        keys = new Object[capacity];
+        Arrays.fill(pos, -1);
+    }
+
+    public int size(){
+        return size;
+    }
+
+    public boolean isEmpty(){
+        return size == 0;
+    }
+
+    public boolean contains(int id){
+        checkId(id);
+        return pos[id] >= 0;
+    }
+
+    /**
+     * 插入id，其key为key
+     */
+    public void insert(int id, E key){
+        checkId(id);
+        if(pos[id] >= 0){
+            throw new IllegalArgumentException("id is already in the heap.");
+        }
+        Objects.requireNonNull(key);
+        keys[id] = key;
+        try {
+            shiftUp(size, id);
+        } catch (RuntimeException e) {
+            keys[id] = null;
+            throw e;
+        }
+        size++;
+    }
+
+    /**
+     * @return id对应的key
+     */
+    @SuppressWarnings("unchecked")
+    public E keyOf(int id){
+        checkContains(id);
+        return (E) keys[id];
+    }
+
+    /**
+     * @return 最小的key对应的id
+     */
+    public int getMinId(){
+        if(size == 0){
+            throw new RuntimeException("Heap is empty.");
+        }
+        return heap[0];
+    }
+
+    /**
+     * @return 最小的key
+     */
+    @SuppressWarnings("unchecked")
+    public E getMin(){
+        return (E) keys[getMinId()];
+    }
+
+    /**
+     * 移除key最小的元素
+     * @return 被移除元素的id，其key可以在移除前通过getMin()获取
+     */
+    public int extractMin(){
+        int id = getMinId();
+        removeAt(0);
+        return id;
+    }
+
+    /**
+     * 将id的key修改为key，根据新旧key的大小上浮或下沉
+     */
+    public void changeKey(int id, E key){
+        checkContains(id);
+        Objects.requireNonNull(key);
+        replaceKey(id, key, key.compareTo(keyOf(id)));
+    }
+
+    /**
+     * 将id的key减小为key
+     */
+    public void decreaseKey(int id, E key){
+        checkContains(id);
+        Objects.requireNonNull(key);
+        int cmp = key.compareTo(keyOf(id));
+        if(cmp > 0){
+            throw new IllegalArgumentException("key should not be greater than the current key.");
+        }
+        replaceKey(id, key, cmp);
+    }
+
+    /**
+     * 将id的key增大为key
+     */
+    public void increaseKey(int id, E key){
+        checkContains(id);
+        Objects.requireNonNull(key);
+        int cmp = key.compareTo(keyOf(id));
+        if(cmp < 0){
+            throw new IllegalArgumentException("key should not be less than the current key.");
+        }
+        replaceKey(id, key, cmp);
+    }
+
+    /**
+     * 将id的key替换为key，cmp为新key与旧key的比较结果。移动失败时恢复旧key
+     */
+    private void replaceKey(int id, E key, int cmp){
+        Object old = keys[id];
+        keys[id] = key;
+        try {
+            if(cmp < 0){
+                shiftUp(pos[id], id);
+            }else if(cmp > 0){
+                shiftDown(pos[id], id);
+            }
+        } catch (RuntimeException e) {
+            keys[id] = old;
+            throw e;
+        }
+    }
+
+    /**
+     * 从堆中移除id
+     */
+    public void remove(int id){
+        checkContains(id);
+        removeAt(pos[id]);
+    }
+
+    /**
+     * 移除堆中位置i的元素：用最后一个元素last填补空位。last比i处的父亲小时，它也比i的子树中的所有元素小，只需上浮；
+     * 否则只需下沉。移动失败时恢复size，堆保持原样
+     */
+    private void removeAt(int i){
+        int id = heap[i];
+        int last = heap[--size];
+        if(i < size){
+            try {
+                if(i > 0 && less(last, heap[(i - 1) >>> 1])){
+                    shiftUp(i, last);
+                }else{
+                    shiftDown(i, last);
+                }
+            } catch (RuntimeException e) {
+                size++;
+                throw e;
+            }
+        }
+        pos[id] = -1;
+        keys[id] = null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean less(int a, int b){
+        return ((E) keys[a]).compareTo((E) keys[b]) < 0;
+    }
+
+    /**
+     * 将id放入空位hole并上浮，同时维护pos。先比较出目标位置target，再把hole到target路径上的元素依次下移
+     */
+    private void shiftUp(int hole, int id){
+        int target = hole;
+        while (target > 0) {
+            int parent = (target - 1) >>> 1;
+            if(!less(id, heap[parent])){
+                break;
+            }
+            target = parent;
+        }
+        while (hole > target) {
+            int parent = (hole - 1) >>> 1;
+            heap[hole] = heap[parent];
+            pos[heap[hole]] = hole;
+            hole = parent;
+        }
+        heap[hole] = id;
+        pos[id] = hole;
+    }
+
+    /**
+     * 将id放入空位hole并沿较小的孩子下沉，同时维护pos。
+     * 先比较出下沉的路径，path的第d位记录第d层是否走向右孩子（树高不超过31层），再沿该路径把元素依次上移
+     */
+    private void shiftDown(int hole, int id){
+        int half = size >>> 1;
+        int path = 0, depth = 0;
+        for (int i = hole; i < half; depth++) {
+            int child = 2 * i + 1;
+            if(child + 1 < size && less(heap[child + 1], heap[child])){
+                child++;
+                path |= 1 << depth;
+            }
+            if(!less(heap[child], id)){
+                break;
+            }
+            i = child;
+        }
+        for (int d = 0; d < depth; d++) {
+            int child = 2 * hole + 1 + ((path >>> d) & 1);
+            heap[hole] = heap[child];
+            pos[heap[hole]] = hole;
+            hole = child;
+        }
+        heap[hole] = id;
+        pos[id] = hole;
+    }
+
+    private void checkId(int id){
+        if(id < 0 || id >= pos.length){
+            throw new IllegalArgumentException("id is out of bound.");
+        }
+    }
+
+    private void checkContains(int id){
+        checkId(id);
+        if(pos[id] < 0){
+            throw new IllegalArgumentException("id is not in the heap.");
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package tree.heapandpriorityqueue;
+
+import java.util.Arrays;
+
+/**
+ * @author: lsj
+ * @date: 2026/10/18 22:40
+ * Description: int大根堆。与MaxHeap<Integer>相比：
+ * 1. 元素直接存放在int[]中，没有装箱，也没有List.get/set的边界检查和compareTo的接口调用；
+ * 2. 上浮和下沉时不交换，而是移动“空位”(hole)：沿路径把父亲（或较大的孩子）移入空位，最后把元素放入最终位置，每层只写一次数组；
+ * 3. 数组满时按1.5倍扩容，均摊O(1)；出堆不缩容，容量稳定后add/extractMax不再分配内存。
+ */
+public class IntMaxHeap {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] data;
+    private int size;
+
+    public IntMaxHeap(){
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntMaxHeap(int capacity){
+        if(capacity < 0){
+            throw new IllegalArgumentException("capacity should be non-negative.");
+        }
+        data = new int[Math.max(capacity, 1)];
+    }
+
+    /**
+     * 复制arr并heapify，时间复杂度O(n)
+     */
+    public IntMaxHeap(int[] arr){
+        data = Arrays.copyOf(arr, Math.max(arr.length, 1));
+        size = arr.length;
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            shiftDown(i, data[i]);
+        }
+    }
+
+    public int size(){
+        return size;
+    }
+
+    public boolean isEmpty(){
+        return size == 0;
+    }
+
+    /**
+     * 清空堆，保留已分配的数组
+     */
+    public void clear(){
+        size = 0;
+    }
+
+    /**
+     * 预先扩容，使容量不小于capacity
+     */
+    public void ensureCapacity(int capacity){
+        if(capacity > data.length){
+            data = Arrays.copyOf(data, capacity);
+        }
+    }
+
+    private void grow(){
+        int newCapacity = data.length + (data.length >> 1) + 1;
+        if(newCapacity < 0){
+            //溢出
+            if(data.length == Integer.MAX_VALUE){
+                throw new IllegalStateException("Heap is full.");
+            }
+            newCapacity = Integer.MAX_VALUE;
+        }
+        data = Arrays.copyOf(data, newCapacity);
+    }
+
+    public void add(int e){
+        if(size == data.length){
+            grow();
+        }
+        shiftUp(size++, e);
+    }
+
+    /**
+     * 将e放入空位hole，并沿父亲方向上浮
+     */
+    private void shiftUp(int hole, int e){
+        while (hole > 0) {
+            int parent = (hole - 1) >>> 1;
+            if(data[parent] >= e){
+                break;
+            }
+            data[hole] = data[parent];
+            hole = parent;
+        }
+        data[hole] = e;
+    }
+
+    /**
+     * 将e放入空位hole，并沿较大的孩子下沉
+     */
+    private void shiftDown(int hole, int e){
+        //size/2及之后的节点都是叶子
+        int half = size >>> 1;
+        while (hole < half) {
+            int child = 2 * hole + 1;
+            if(child + 1 < size && data[child + 1] > data[child]){
+                child++;
+            }
+            if(e >= data[child]){
+                break;
+            }
+            data[hole] = data[child];
+            hole = child;
+        }
+        data[hole] = e;
+    }
+
+    public int getMax(){
+        if(size == 0){
+            throw new RuntimeException("Heap is empty.");
+        }
+        return data[0];
+    }
+
+    public int extractMax(){
+        int result = getMax();
+        int last = data[--size];
+        if(size > 0){
+            shiftDown(0, last);
+        }
+        return result;
+    }
+
+    /**
+     * 取出堆中的最大元素，并且新加入一个元素，只需一次下沉
+     * @param e 添加的元素
+     * @return 取出的最大元素
+     */
+    public int replace(int e){
+        int result = getMax();
+        shiftDown(0, e);
+        return result;
+    }
+}
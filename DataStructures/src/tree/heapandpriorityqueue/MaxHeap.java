@@ -2,13 +2,16 @@ package tree.heapandpriorityqueue;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
 /**
  * @author: lsj
  * @date: 2021/1/26 10:37
  * Description: 大根堆。主要实现了add, extractMax, replace和heapify四个操作。
+ * 批量操作：addAll在批量较大时整体heapify，drainTo和pollBatch一次取出多个最大的元素，pushPop用于流式的top-k。
  */
 public class MaxHeap<E extends Comparable<E>> {
     /**
@@ -25,9 +28,16 @@ public class MaxHeap<E extends Comparable<E>> {
     }
 
     public MaxHeap(E[] arr){
-        data = Arrays.asList(arr);
-        //heapify
-        for(int i = parentIdx(arr.length - 1); i >= 0; i--){
+        //Arrays.asList返回的List长度固定，之后无法add或extractMax，因此复制到ArrayList中
+        data = new ArrayList<>(Arrays.asList(arr));
+        heapify();
+    }
+
+    /**
+     * 从最后一个非叶子节点开始，依次对每一个非叶子节点执行shift down操作，时间复杂度O(n)
+     */
+    private void heapify(){
+        for(int i = size() / 2 - 1; i >= 0; i--){
             shiftDown(i);
         }
     }
@@ -146,9 +156,94 @@ public class MaxHeap<E extends Comparable<E>> {
      */
     public E replace(E e){
         E result = getMax();
-        //or data.set(0, e);后再shiftDown(0);
-        add(e);
+        //直接覆盖根节点再下沉，只需一次O(log n)的下沉
+        data.set(0, e);
+        shiftDown(0);
+        return result;
+    }
+
+    /**
+     * 先加入e再取出最大元素，等价于add(e)后extractMax()，但最多只需一次下沉。
+     * e不小于堆顶时e本身就是最大值，直接返回，堆不变。常用于流式的top-k：保持一个k个元素的堆，每来一个元素pushPop一次。
+     * @param e 添加的元素
+     * @return 取出的最大元素
+     */
+    public E pushPop(E e){
+        if(isEmpty() || e.compareTo(data.get(0)) >= 0){
+            return e;
+        }
+        E result = data.get(0);
+        data.set(0, e);
+        shiftDown(0);
         return result;
     }
 
+    /**
+     * 批量添加元素。逐个add的代价约为k*log(n+k)次比较，而追加到末尾后整体heapify约为2(n+k)次比较，
+     * 因此批量相对于堆较大时整体heapify，否则逐个上浮。
+     * @param c 待添加的元素
+     */
+    public void addAll(Collection<? extends E> c){
+        int k = c.size();
+        if(k == 0){
+            return;
+        }
+        int newSize = size() + k;
+        int log2 = 31 - Integer.numberOfLeadingZeros(newSize);
+        if((long) k * log2 > 2L * newSize){
+            data.addAll(c);
+            heapify();
+        }else{
+            for (E e : c) {
+                add(e);
+            }
+        }
+    }
+
+    /**
+     * 取出最多max个最大的元素，按从大到小的顺序写入array[0...]。
+     * 取出的元素较多（至少一半）时，把整个堆按降序排序后截取前面的部分：降序的数组本身就是一个大根堆，
+     * 剩余部分不需要再调整，一次排序代替多次下沉。否则逐个extractMax。
+     * @param array 输出数组
+     * @param max 最多取出的元素个数
+     * @return 实际取出的元素个数
+     */
+    public int drainTo(E[] array, int max){
+        if(max < 0 || max > array.length){
+            throw new IllegalArgumentException("max should be in [0, array.length].");
+        }
+        int k = Math.min(max, size());
+        if(k == 0){
+            return 0;
+        }
+        if(2 * k >= size()){
+            data.sort(Comparator.reverseOrder());
+            List<E> head = data.subList(0, k);
+            for (int i = 0; i < k; i++) {
+                array[i] = head.get(i);
+            }
+            head.clear();
+        }else{
+            for (int i = 0; i < k; i++) {
+                array[i] = extractMax();
+            }
+        }
+        return k;
+    }
+
+    /**
+     * 取出最多k个最大的元素
+     * @param k 最多取出的元素个数
+     * @return 按从大到小排列的元素
+     */
+    @SuppressWarnings("unchecked")
+    public List<E> pollBatch(int k){
+        if(k < 0){
+            throw new IllegalArgumentException("k should be non-negative.");
+        }
+        E[] buffer = (E[]) new Comparable<?>[Math.min(k, size())];
+        drainTo(buffer, buffer.length);
+        return new ArrayList<>(Arrays.asList(buffer));
+    }
+
 }